@@ -0,0 +1,28 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Accepts the usual JMH command line and always adds
+ * the gc profiler, so every result reports allocation rate next to throughput.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine);
+        boolean hasGcProfiler = commandLine.getProfilers().stream()
+                .anyMatch(profiler -> profiler.getKlass().equals(GCProfiler.class.getName()));
+        if (!hasGcProfiler) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.dto.BookingDtoConverter;
+import ru.practicum.shareit.booking.dto.BookingDtoOnlyIdAndBookerId;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDtoConverter;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookingAndComments;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+
+    @Param({"10", "100"})
+    private int size;
+
+    private List<Booking> bookings;
+    private List<Item> items;
+    private List<ItemDtoWithBookingAndComments> itemDtos;
+
+    @Setup
+    public void setUp() {
+        User owner = Fixtures.owner();
+        items = Fixtures.items(size, owner);
+        bookings = Fixtures.bookings(items, Fixtures.requestor());
+        itemDtos = Fixtures.itemDtos(items);
+    }
+
+    @Benchmark
+    public void bookingToOutputDto(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(BookingDtoConverter.toOutputDto(booking));
+        }
+    }
+
+    @Benchmark
+    public void itemToDtoWithBookingAndComments(Blackhole blackhole) {
+        for (int i = 0; i < items.size(); i++) {
+            ItemDtoWithBookingAndComments dto = itemDtos.get(i);
+            BookingDtoOnlyIdAndBookerId lastBooking = dto.getLastBooking();
+            BookingDtoOnlyIdAndBookerId nextBooking = dto.getNextBooking();
+            List<CommentDto> comments = dto.getComments();
+            blackhole.consume(ItemDtoConverter.toDtoWithBookingAndComments(items.get(i), lastBooking, nextBooking,
+                    comments));
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.dto.BookingDtoConverter;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingPointer;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.Status;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.CommentDtoConverter;
+import ru.practicum.shareit.item.comment.CommentView;
+import ru.practicum.shareit.item.dto.ItemDtoConverter;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookingAndComments;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Builds detached entities and projections shaped like the ones the repositories return,
+ * and repository stubs that hand them out without a database.
+ */
+final class Fixtures {
+
+    static final long OWNER_ID = 1;
+    static final long REQUESTOR_ID = 2;
+    static final int COMMENTS_PER_ITEM = 3;
+    static final int ITEMS_PER_REQUEST = 2;
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2022, 9, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    static User owner() {
+        return new User(OWNER_ID, "Owner", "owner@yandex.ru");
+    }
+
+    static User requestor() {
+        return new User(REQUESTOR_ID, "Requestor", "requestor@yandex.ru");
+    }
+
+    static List<Item> items(int size, User owner) {
+        List<Item> items = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            items.add(new Item(id, "Drill " + id, "Cordless drill number " + id, true, owner, null));
+        }
+        return items;
+    }
+
+    static List<Booking> bookings(List<Item> items, User booker) {
+        List<Booking> bookings = new ArrayList<>(items.size());
+        for (Item item : items) {
+            bookings.add(new Booking(item.getId(), NOW.minusDays(item.getId()), NOW.plusDays(item.getId()),
+                    item, booker, Status.APPROVED));
+        }
+        return bookings;
+    }
+
+    static List<CommentView> comments(List<Item> items) {
+        List<CommentView> comments = new ArrayList<>(items.size() * COMMENTS_PER_ITEM);
+        long id = 1;
+        for (Item item : items) {
+            for (int i = 0; i < COMMENTS_PER_ITEM; i++) {
+                comments.add(commentView(id++, item.getId()));
+            }
+        }
+        return comments;
+    }
+
+    static Map<Long, BookingPointer> bookingPointers(List<Item> items) {
+        Map<Long, BookingPointer> pointers = new HashMap<>(items.size() * 2);
+        for (Item item : items) {
+            pointers.put(item.getId(), new BookingPointer(
+                    new BookingInterval(item.getId() * 2, REQUESTOR_ID, NOW.minusDays(1), NOW.minusHours(1)),
+                    new BookingInterval(item.getId() * 2 + 1, REQUESTOR_ID, NOW.plusDays(1), NOW.plusDays(2)),
+                    NOW.plusDays(1)));
+        }
+        return pointers;
+    }
+
+    static List<ItemDtoWithBookingAndComments> itemDtos(List<Item> items) {
+        return items.stream()
+                .map(item -> ItemDtoConverter.toDtoWithBookingAndComments(item,
+                        BookingDtoConverter.toDtoOnlyIdAndBookerId(bookingView(item.getId() * 2, item.getId(), false)),
+                        BookingDtoConverter.toDtoOnlyIdAndBookerId(bookingView(item.getId() * 2 + 1, item.getId(), true)),
+                        commentDtos(item)))
+                .collect(Collectors.toList());
+    }
+
+    static List<ItemRequest> requests(int size, User requestor) {
+        List<ItemRequest> requests = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            requests.add(new ItemRequest(id, "Need a drill " + id, requestor, NOW.minusHours(id)));
+        }
+        return requests;
+    }
+
+    static List<Item> itemsForRequests(List<ItemRequest> requests, User owner) {
+        List<Item> items = new ArrayList<>(requests.size() * ITEMS_PER_REQUEST);
+        long id = 1;
+        for (ItemRequest request : requests) {
+            for (int i = 0; i < ITEMS_PER_REQUEST; i++, id++) {
+                items.add(new Item(id, "Drill " + id, "Cordless drill number " + id, true, owner, request));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Implements a repository interface with canned results keyed by method name.
+     * Any other call fails, so a benchmark can't silently measure an empty code path.
+     */
+    static <T> T stub(Class<T> repository, Map<String, Object> results) {
+        Object stub = Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.getName().equals("equals") ? proxy == args[0]
+                                : method.getName().equals("hashCode") ? System.identityHashCode(proxy)
+                                : repository.getSimpleName() + " stub";
+                    }
+                    if (!results.containsKey(method.getName())) {
+                        throw new UnsupportedOperationException(repository.getSimpleName() + "." + method.getName());
+                    }
+                    return results.get(method.getName());
+                });
+        return repository.cast(stub);
+    }
+
+    private static List<CommentDto> commentDtos(Item item) {
+        List<CommentDto> comments = new ArrayList<>(COMMENTS_PER_ITEM);
+        for (int i = 0; i < COMMENTS_PER_ITEM; i++) {
+            comments.add(CommentDtoConverter.toDto(commentView(item.getId() * COMMENTS_PER_ITEM + i, item.getId())));
+        }
+        return comments;
+    }
+
+    private static CommentView commentView(long id, long itemId) {
+        return new CommentView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public String getText() {
+                return "Works fine, battery lasts for a whole day " + id;
+            }
+
+            @Override
+            public String getAuthorName() {
+                return "Booker";
+            }
+
+            @Override
+            public LocalDateTime getCreated() {
+                return NOW.minusMinutes(id);
+            }
+
+            @Override
+            public Long getTotal() {
+                return (long) COMMENTS_PER_ITEM;
+            }
+        };
+    }
+
+    private static ItemBookingView bookingView(long id, long itemId, boolean isNext) {
+        return new ItemBookingView() {
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return REQUESTOR_ID;
+            }
+
+            @Override
+            public Boolean getIsNext() {
+                return isNext;
+            }
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.index.BookingIndexService;
+import ru.practicum.shareit.booking.index.BookingPointerService;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.CommentSummaryCache;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookingAndComments;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchService;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestFeed;
+import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
+import ru.practicum.shareit.request.stream.ItemRequestStreamService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the in-memory part of the item and request listings: grouping of comments, last/next bookings
+ * and request items by id, and building the DTOs. Repositories are stubs returning prepared rows and
+ * last/next bookings come from prepared pointers. The plain benchmarks run with caches that expire
+ * immediately, so every call groups the rows again; the {@code *Cached} ones serve comment summaries and
+ * request lists from their caches after the first call, as in the running server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroupingBenchmark {
+
+    @Param({"10", "100"})
+    private int size;
+
+    private ItemServiceImpl itemService;
+    private ItemServiceImpl cachedItemService;
+    private ItemRequestServiceImpl itemRequestService;
+    private ItemRequestServiceImpl cachedItemRequestService;
+
+    @Setup
+    public void setUp() {
+        itemService = itemService(Duration.ZERO);
+        cachedItemService = itemService(Duration.ofHours(1));
+        itemRequestService = itemRequestService(Duration.ZERO);
+        cachedItemRequestService = itemRequestService(Duration.ofHours(1));
+    }
+
+    @Benchmark
+    public List<ItemDtoWithBookingAndComments> itemsWithBookingAndComments() {
+        return itemService.getAll(Fixtures.OWNER_ID, 0, size);
+    }
+
+    @Benchmark
+    public List<ItemDtoWithBookingAndComments> itemsWithBookingAndCommentsCached() {
+        return cachedItemService.getAll(Fixtures.OWNER_ID, 0, size);
+    }
+
+    @Benchmark
+    public List<ItemRequestDtoOutput> requestsWithItems() {
+        return itemRequestService.getAll(Fixtures.REQUESTOR_ID);
+    }
+
+    @Benchmark
+    public List<ItemRequestDtoOutput> requestsWithItemsCached() {
+        return cachedItemRequestService.getAll(Fixtures.REQUESTOR_ID);
+    }
+
+    @Benchmark
+    public List<ItemRequestDtoOutput> recentRequestsWithItems() {
+        return itemRequestService.getAllAnotherUsers(Fixtures.OWNER_ID, 0, size);
+    }
+
+    @Benchmark
+    public List<ItemRequestDtoOutput> recentRequestsWithItemsCached() {
+        return cachedItemRequestService.getAllAnotherUsers(Fixtures.OWNER_ID, 0, size);
+    }
+
+    private ItemServiceImpl itemService(Duration ttl) {
+        User owner = Fixtures.owner();
+        List<Item> items = Fixtures.items(size, owner);
+        return new ItemServiceImpl(
+                Fixtures.stub(BookingRepository.class, Map.of()),
+                Fixtures.stub(ItemRepository.class, Map.of(
+                        "findAllByOwner_Id_OrderByIdAsc", items)),
+                Fixtures.stub(UserRepository.class, Map.of(
+                        "findById", Optional.of(owner))),
+                Fixtures.stub(CommentRepository.class, Map.of(
+                        "findLatestByItem_IdIn", Fixtures.comments(items))),
+                Fixtures.stub(ItemRequestRepository.class, Map.of()),
+                Fixtures.stub(ItemSearchService.class, Map.of()),
+                new UserCache(100, Duration.ofHours(1)),
+                new CommentSummaryCache(size, ttl, Fixtures.COMMENTS_PER_ITEM),
+                Fixtures.stub(BookingIndexService.class, Map.of()),
+                Fixtures.stub(BookingPointerService.class, Map.of(
+                        "getAll", Fixtures.bookingPointers(items))),
+                new ItemRequestFeed(size, 100, ttl),
+                Fixtures.stub(ItemRequestStreamService.class, Map.of()));
+    }
+
+    private ItemRequestServiceImpl itemRequestService(Duration ttl) {
+        User owner = Fixtures.owner();
+        List<ItemRequest> requests = Fixtures.requests(size, Fixtures.requestor());
+        return new ItemRequestServiceImpl(
+                Fixtures.stub(ItemRequestRepository.class, Map.of(
+                        "findByRequestor_Id", requests,
+                        "findRecent", requests)),
+                Fixtures.stub(UserRepository.class, Map.of(
+                        "findById", Optional.of(owner))),
+                Fixtures.stub(ItemRepository.class, Map.of(
+                        "findByRequest_IdIn", Fixtures.itemsForRequests(requests, owner))),
+                new UserCache(100, Duration.ofHours(1)),
+                new ItemRequestFeed(size, 100, ttl),
+                Fixtures.stub(ItemRequestStreamService.class, Map.of()));
+    }
+}
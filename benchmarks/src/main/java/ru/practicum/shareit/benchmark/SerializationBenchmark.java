@@ -0,0 +1,40 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookingAndComments;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes item listings the way the server writes responses, with the object mapper settings
+ * Spring Boot applies by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int size;
+
+    private ObjectWriter writer;
+    private List<ItemDtoWithBookingAndComments> items;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        items = Fixtures.itemDtos(Fixtures.items(size, Fixtures.owner()));
+    }
+
+    @Benchmark
+    public byte[] itemsWithBookingAndComments() throws JsonProcessingException {
+        return writer.writeValueAsBytes(items);
+    }
+}
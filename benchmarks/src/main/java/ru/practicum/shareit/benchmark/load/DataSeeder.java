@@ -0,0 +1,92 @@
+package ru.practicum.shareit.benchmark.load;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+/**
+ * Fills an empty database straight through JDBC: users, items owned by a tenth of the users,
+ * bookings spread around now with mixed statuses, and comments. The same seed gives the same data.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class DataSeeder {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final List<String> NAMES = List.of("Drill", "Saw", "Ladder", "Tent", "Bike", "Kayak",
+            "Projector", "Camera", "Grill", "Hammer", "Sander", "Tripod");
+    private static final List<String> DETAILS = List.of("cordless", "compact", "heavy", "folding", "electric",
+            "wooden", "portable", "waterproof");
+    private static final List<String> STATUSES = List.of("APPROVED", "APPROVED", "APPROVED", "APPROVED",
+            "APPROVED", "APPROVED", "APPROVED", "WAITING", "WAITING", "REJECTED");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    DataSet seed(LoadTestOptions options) {
+        Random random = new Random(options.getSeed());
+        LocalDateTime now = LocalDateTime.now();
+        long[] owners = LongStream.rangeClosed(1, Math.max(1, options.getUsers() / 10)).toArray();
+
+        insert("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", options.getUsers(),
+                id -> new Object[]{id, "User " + id, "user" + id + "@yandex.ru"});
+        insert("INSERT INTO items (id, name, description, is_available, owner_id) VALUES (?, ?, ?, ?, ?)",
+                options.getItems(), id -> new Object[]{id,
+                        pick(random, DETAILS) + " " + pick(random, NAMES),
+                        pick(random, DETAILS) + " " + pick(random, NAMES).toLowerCase() + " in good condition",
+                        random.nextInt(10) > 0, owners[random.nextInt(owners.length)]});
+        insert("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)", options.getBookings(), id -> {
+                    LocalDateTime start = now.plusHours(random.nextInt(24 * 120) - 24 * 60);
+                    return new Object[]{id, Timestamp.valueOf(start),
+                            Timestamp.valueOf(start.plusHours(1 + random.nextInt(24 * 5))),
+                            random.nextInt(options.getItems()) + 1, random.nextInt(options.getUsers()) + 1,
+                            pick(random, STATUSES)};
+                });
+        insert("INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)",
+                options.getComments(), id -> new Object[]{id, "Works fine, " + pick(random, DETAILS) + " enough",
+                        random.nextInt(options.getItems()) + 1, random.nextInt(options.getUsers()) + 1,
+                        Timestamp.valueOf(now.minusHours(random.nextInt(24 * 60)))});
+
+        restartSequence("user_seq", options.getUsers());
+        restartSequence("item_seq", options.getItems());
+        restartSequence("booking_seq", options.getBookings());
+        restartSequence("comment_seq", options.getComments());
+        log.info("Seeded {} users, {} items, {} bookings, {} comments", options.getUsers(), options.getItems(),
+                options.getBookings(), options.getComments());
+
+        List<String> words = new ArrayList<>();
+        NAMES.forEach(name -> words.add(name.toLowerCase()));
+        words.addAll(DETAILS);
+        return new DataSet(options.getUsers(), owners, words);
+    }
+
+    private void insert(String sql, int count, RowFactory rows) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= count; id++) {
+            batch.add(rows.row(id));
+            if (batch.size() == BATCH_SIZE || id == count) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void restartSequence(String sequence, int count) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (count + 1));
+    }
+
+    private static String pick(Random random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private interface RowFactory {
+        Object[] row(long id);
+    }
+}
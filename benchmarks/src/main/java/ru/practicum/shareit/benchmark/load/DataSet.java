@@ -0,0 +1,29 @@
+package ru.practicum.shareit.benchmark.load;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * What the seeder put into the database, so that requests ask for users and words that exist.
+ */
+@RequiredArgsConstructor
+class DataSet {
+
+    private final int users;
+    private final long[] owners;
+    private final List<String> words;
+
+    long randomUser(Random random) {
+        return random.nextInt(users) + 1;
+    }
+
+    long randomOwner(Random random) {
+        return owners[random.nextInt(owners.length)];
+    }
+
+    String randomWord(Random random) {
+        return words.get(random.nextInt(words.size()));
+    }
+}
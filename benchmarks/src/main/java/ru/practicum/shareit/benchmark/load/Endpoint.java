@@ -0,0 +1,91 @@
+package ru.practicum.shareit.benchmark.load;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Endpoints the load test calls. Every request is reported under the key
+ * the server sees it by: the mapped path and, for booking lists, the state.
+ */
+enum Endpoint {
+
+    ITEMS("items") {
+        @Override
+        String path(DataSet data, Random random) {
+            return "/items?from=0&size=20";
+        }
+
+        @Override
+        long userId(DataSet data, Random random) {
+            return data.randomOwner(random);
+        }
+    },
+    SEARCH("search") {
+        @Override
+        String path(DataSet data, Random random) {
+            return "/items/search?text=" + data.randomWord(random) + "&from=0&size=20";
+        }
+    },
+    BOOKINGS("bookings") {
+        @Override
+        String path(DataSet data, Random random) {
+            return "/bookings?state=" + randomState(random) + "&from=0&size=20";
+        }
+    },
+    OWNER("owner") {
+        @Override
+        String path(DataSet data, Random random) {
+            return "/bookings/owner?state=" + randomState(random) + "&from=0&size=20";
+        }
+
+        @Override
+        long userId(DataSet data, Random random) {
+            return data.randomOwner(random);
+        }
+    };
+
+    private static final List<String> STATES = List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+
+    private final String name;
+
+    Endpoint(String name) {
+        this.name = name;
+    }
+
+    abstract String path(DataSet data, Random random);
+
+    long userId(DataSet data, Random random) {
+        return data.randomUser(random);
+    }
+
+    static Endpoint byName(String name) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint " + name));
+    }
+
+    /**
+     * Turns a request path into its report key: {@code /items/search?text=drill} becomes
+     * {@code /items/search}, {@code /bookings?state=PAST&from=0} becomes {@code /bookings?state=PAST}.
+     */
+    static String keyOf(String pathWithQuery) {
+        int query = pathWithQuery.indexOf('?');
+        if (query < 0) {
+            return pathWithQuery;
+        }
+        String state = null;
+        for (String param : pathWithQuery.substring(query + 1).split("&")) {
+            if (param.startsWith("state=")) {
+                state = param.substring("state=".length());
+            }
+        }
+        String path = pathWithQuery.substring(0, query);
+        return state == null ? path : path + "?state=" + state;
+    }
+
+    private static String randomState(Random random) {
+        return STATES.get(random.nextInt(STATES.size()));
+    }
+}
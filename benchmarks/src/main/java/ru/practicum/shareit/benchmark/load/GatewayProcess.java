@@ -0,0 +1,89 @@
+package ru.practicum.shareit.benchmark.load;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Runs the gateway jar in its own JVM in front of the server under test.
+ * Both applications share packages, so they can't run on one classpath.
+ */
+@Slf4j
+class GatewayProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final Process process;
+    @Getter
+    private final int port;
+
+    private GatewayProcess(Process process, int port) {
+        this.process = process;
+        this.port = port;
+    }
+
+    static GatewayProcess start(Path jar, int serverPort) throws IOException, InterruptedException {
+        int port = freePort();
+        Path javaBin = Path.of(System.getProperty("java.home"), "bin", "java");
+        File output = Path.of(System.getProperty("java.io.tmpdir"), "shareit-load-gateway.log").toFile();
+        Process process = new ProcessBuilder(javaBin.toString(), "-jar", jar.toString(),
+                "--server.port=" + port,
+                "--shareit-server.url=http://localhost:" + serverPort,
+                "--logging.level.root=warn",
+                "--logging.level.org.springframework.web.client.RestTemplate=warn")
+                .redirectErrorStream(true)
+                .redirectOutput(output)
+                .start();
+        GatewayProcess gateway = new GatewayProcess(process, port);
+        try {
+            gateway.awaitHealthy();
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            gateway.close();
+            throw e;
+        }
+        log.info("Gateway started on port {}, log in {}", port, output);
+        return gateway;
+    }
+
+    @Override
+    public void close() {
+        process.destroy();
+    }
+
+    private void awaitHealthy() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Gateway exited with code " + process.exitValue());
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                log.debug("Gateway is not up yet: {}", e.getMessage());
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Gateway did not start in " + STARTUP_TIMEOUT);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.benchmark.load;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load: every thread sends the next request as soon as the previous one is answered,
+ * picking the endpoint by the configured weights.
+ */
+@Slf4j
+class LoadDriver {
+
+    private final URI target;
+    private final DataSet data;
+    private final LoadTestOptions options;
+    private final LoadStats stats;
+    private final HttpClient client;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private int phase;
+
+    LoadDriver(URI target, DataSet data, LoadTestOptions options, LoadStats stats) {
+        this.target = target;
+        this.data = data;
+        this.options = options;
+        this.stats = stats;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.endpoints = options.getMix().keySet().toArray(new Endpoint[0]);
+        this.cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        int i = 0;
+        for (Map.Entry<Endpoint, Integer> weight : options.getMix().entrySet()) {
+            total += weight.getValue();
+            cumulativeWeights[i++] = total;
+        }
+    }
+
+    void run(Duration duration) throws InterruptedException, ExecutionException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(options.getThreads());
+        List<Future<?>> workers = new ArrayList<>();
+        phase++;
+        for (int i = 0; i < options.getThreads(); i++) {
+            Random random = new Random(options.getSeed() * 31 + phase * 1_000L + i);
+            workers.add(executor.submit(() -> work(random, deadline)));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+    }
+
+    private Void work(Random random, long deadline) throws InterruptedException {
+        while (System.nanoTime() < deadline) {
+            Endpoint endpoint = pick(random);
+            String path = endpoint.path(data, random);
+            HttpRequest request = HttpRequest.newBuilder(target.resolve(path))
+                    .header("X-Sharer-User-Id", String.valueOf(endpoint.userId(data, random)))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            long startedAt = System.nanoTime();
+            boolean ok;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() < 400;
+                if (!ok) {
+                    log.warn("{} answered {}", path, response.statusCode());
+                }
+            } catch (IOException e) {
+                ok = false;
+                log.warn("{} failed: {}", path, e.getMessage());
+            }
+            stats.get(Endpoint.keyOf(path)).recordLatency(System.nanoTime() - startedAt, ok);
+        }
+        return null;
+    }
+
+    private Endpoint pick(Random random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        throw new IllegalStateException("Weight " + value + " is out of range");
+    }
+}
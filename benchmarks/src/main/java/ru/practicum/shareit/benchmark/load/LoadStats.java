@@ -0,0 +1,122 @@
+package ru.practicum.shareit.benchmark.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and statement count histograms per endpoint key. Latencies are recorded by the load driver,
+ * statement counts by the server in the same JVM.
+ */
+class LoadStats {
+
+    private static final String CSV_HEADER = "time,label,endpoint,requests,errors,throughput,p50_ms,p99_ms," +
+            "p999_ms,max_ms,statements_avg,statements_max";
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    EndpointStats get(String key) {
+        return endpoints.computeIfAbsent(key, ignored -> new EndpointStats());
+    }
+
+    void reset() {
+        endpoints.values().forEach(EndpointStats::reset);
+    }
+
+    void print(PrintStream out, Duration duration) {
+        out.printf("%-28s %9s %7s %9s %9s %9s %9s %9s %10s %10s%n", "endpoint", "requests", "errors", "req/s",
+                "p50 ms", "p99 ms", "p99.9 ms", "max ms", "stmts avg", "stmts max");
+        for (Map.Entry<String, EndpointStats> endpoint : sorted().entrySet()) {
+            EndpointStats stats = endpoint.getValue();
+            Histogram latency = stats.latency;
+            out.printf("%-28s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %10.1f %10d%n", endpoint.getKey(),
+                    latency.getTotalCount(), stats.errors.sum(), latency.getTotalCount() / seconds(duration),
+                    millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)), millis(latency.getMaxValue()),
+                    stats.statements.getMean(), stats.statements.getMaxValue());
+        }
+    }
+
+    /**
+     * Appends one line per endpoint, writing the header first if the file is new, so runs can be compared
+     * in a spreadsheet.
+     */
+    void appendCsv(Path file, String label, Duration duration) throws IOException {
+        List<String> lines = new ArrayList<>();
+        if (!Files.exists(file)) {
+            lines.add(CSV_HEADER);
+        }
+        String time = LocalDateTime.now().withNano(0).toString();
+        for (Map.Entry<String, EndpointStats> endpoint : sorted().entrySet()) {
+            Histogram latency = endpoint.getValue().latency;
+            Histogram statements = endpoint.getValue().statements;
+            lines.add(String.join(",", time, label, endpoint.getKey(),
+                    String.valueOf(latency.getTotalCount()), String.valueOf(endpoint.getValue().errors.sum()),
+                    format(latency.getTotalCount() / seconds(duration)),
+                    format(millis(latency.getValueAtPercentile(50))), format(millis(latency.getValueAtPercentile(99))),
+                    format(millis(latency.getValueAtPercentile(99.9))), format(millis(latency.getMaxValue())),
+                    format(statements.getMean()), String.valueOf(statements.getMaxValue())));
+        }
+        Files.write(file, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private Map<String, EndpointStats> sorted() {
+        Map<String, EndpointStats> sorted = new TreeMap<>();
+        endpoints.forEach((key, stats) -> {
+            if (stats.latency.getTotalCount() > 0) {
+                sorted.put(key, stats);
+            }
+        });
+        return sorted;
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toMillis() / 1000.0;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static String format(double value) {
+        return String.format("%.2f", value);
+    }
+
+    static class EndpointStats {
+
+        private final Histogram latency = new ConcurrentHistogram(3);
+        private final Histogram statements = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+
+        void recordLatency(long nanos, boolean ok) {
+            latency.recordValue(nanos);
+            if (!ok) {
+                errors.increment();
+            }
+        }
+
+        void recordStatements(int count) {
+            statements.recordValue(count);
+        }
+
+        private void reset() {
+            latency.reset();
+            statements.reset();
+            errors.reset();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.benchmark.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.index.BookingIndexServiceImpl;
+import ru.practicum.shareit.item.search.ItemSearchServiceImpl;
+
+import java.net.URI;
+
+/**
+ * Boots the server on H2 under the {@code test} profile, seeds it, optionally starts the gateway in front
+ * of it and drives a weighted mix of list and search requests. Prints throughput, latency percentiles and
+ * SQL statements per request for every endpoint.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar ru.practicum.shareit.benchmark.load.LoadTest \
+ *     --users=1000 --items=5000 --bookings=50000 --threads=16 --duration=30s \
+ *     --gateway-jar=gateway/target/gateway-0.0.1-SNAPSHOT.jar --report=load.csv --label=baseline
+ * </pre>
+ */
+@Slf4j
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        LoadStats stats = new LoadStats();
+
+        try (ConfigurableApplicationContext server = startServer(stats)) {
+            DataSet data = new DataSeeder(server.getBean(JdbcTemplate.class)).seed(options);
+            server.getBean(ItemSearchServiceImpl.class).load();
+            server.getBean(BookingIndexServiceImpl.class).load();
+
+            int serverPort = ((WebServerApplicationContext) server).getWebServer().getPort();
+            GatewayProcess gateway = options.getGatewayJar() == null ? null
+                    : GatewayProcess.start(options.getGatewayJar(), serverPort);
+            try {
+                int port = gateway == null ? serverPort : gateway.getPort();
+                LoadDriver driver = new LoadDriver(URI.create("http://localhost:" + port), data, options, stats);
+                log.info("Warming up for {}", options.getWarmup());
+                driver.run(options.getWarmup());
+                stats.reset();
+                log.info("Measuring for {} with {} threads{}", options.getDuration(), options.getThreads(),
+                        gateway == null ? "" : " through the gateway");
+                driver.run(options.getDuration());
+            } finally {
+                if (gateway != null) {
+                    gateway.close();
+                }
+            }
+        }
+
+        stats.print(System.out, options.getDuration());
+        if (options.getReport() != null) {
+            stats.appendCsv(options.getReport(), options.getLabel(), options.getDuration());
+        }
+    }
+
+    private static ConfigurableApplicationContext startServer(LoadStats stats) {
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .initializers(context -> ((GenericApplicationContext) context)
+                        .registerBean(StatementCountFilter.class, () -> new StatementCountFilter(stats)))
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:shareitLoad",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--logging.level.root=warn",
+                        "--logging.level.ru.practicum.shareit.benchmark=info");
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.benchmark.load;
+
+import lombok.Getter;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line of {@link LoadTest}, given as {@code --name=value}. Unknown names are rejected,
+ * so a typo can't silently run the defaults.
+ */
+@Getter
+class LoadTestOptions {
+
+    private int users = 1_000;
+    private int items = 5_000;
+    private int bookings = 50_000;
+    private int comments = 20_000;
+    private int threads = 16;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(30);
+    private long seed = 42;
+    private Path gatewayJar;
+    private Path report;
+    private String label = "";
+    private Map<Endpoint, Integer> mix = parseMix("items:30,search:20,bookings:30,owner:20");
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but was " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            options.set(name, value);
+        }
+        return options;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "users":
+                users = Integer.parseInt(value);
+                break;
+            case "items":
+                items = Integer.parseInt(value);
+                break;
+            case "bookings":
+                bookings = Integer.parseInt(value);
+                break;
+            case "comments":
+                comments = Integer.parseInt(value);
+                break;
+            case "threads":
+                threads = Integer.parseInt(value);
+                break;
+            case "warmup":
+                warmup = DurationStyle.detectAndParse(value);
+                break;
+            case "duration":
+                duration = DurationStyle.detectAndParse(value);
+                break;
+            case "seed":
+                seed = Long.parseLong(value);
+                break;
+            case "gateway-jar":
+                gatewayJar = Path.of(value);
+                break;
+            case "report":
+                report = Path.of(value);
+                break;
+            case "label":
+                label = value;
+                break;
+            case "mix":
+                mix = parseMix(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option --" + name);
+        }
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] weight = part.split(":");
+            mix.put(Endpoint.byName(weight[0].trim()), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.benchmark.load;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.util.SqlStatementCounter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Server side of the load test: records the statements {@link SqlStatementCounter} counted for a request
+ * under the request's endpoint key.
+ */
+@RequiredArgsConstructor
+class StatementCountFilter extends OncePerRequestFilter {
+
+    private final LoadStats stats;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(request, response);
+        Object statements = request.getAttribute(SqlStatementCounter.STATEMENTS_ATTRIBUTE);
+        if (statements != null) {
+            String query = request.getQueryString();
+            stats.get(Endpoint.keyOf(query == null ? request.getRequestURI() : request.getRequestURI() + "?" + query))
+                    .recordStatements((Integer) statements);
+        }
+    }
+}
@@ -1,62 +1,72 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ServerClientFactory clients) {
+        super(clients.restTemplate(API_PREFIX), clients.webClient(API_PREFIX), clients.isPassThrough(),
+                clients.responseCache(API_PREFIX));
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> getBookings(
+            long userId,
+            BookingState state,
+            int from,
+            int size,
+            String after) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
         );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return getPage("?state={state}&from={from}&size={size}", userId, parameters, after);
     }
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public CompletableFuture<ResponseEntity<Object>> bookItems(long userId, List<BookItemRequestDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getBooking(long userId, Long bookingId, String ifNoneMatch) {
+        return getIfNoneMatch("/" + bookingId, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> patchBooking(long userId, long bookingId, boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> patchBooking(long userId, long bookingId, boolean approved,
+                                                                  String ifMatch) {
         Map<String, Object> parameters = Map.of("approved", approved);
 
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        return patchIfMatch("/" + bookingId + "?approved={approved}", userId, parameters, null, ifMatch);
     }
 
-    public ResponseEntity<Object> getBookingsByOwner(long ownerId, BookingState state, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getBookingsByOwner(
+            long ownerId,
+            BookingState state,
+            Integer from,
+            Integer size,
+            String after) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
         );
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+        return getPage("/owner?state={state}&from={from}&size={size}", ownerId, parameters, after);
     }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -12,8 +13,12 @@ import ru.practicum.shareit.exception.TimeException;
 import ru.practicum.shareit.exception.UnknownStateException;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -21,22 +26,27 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
+    public CompletableFuture<ResponseEntity<Object>> getBookings(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
+            @Positive @RequestParam(name = "size", defaultValue = "10") int size,
+            @RequestParam(name = "after", required = false) String after) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(UnknownStateException::new);
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, after={}", stateParam, userId, from, size,
+                after);
+        return bookingClient.getBookings(userId, state, from, size, after);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
-                                           @RequestBody @Valid BookItemRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                              @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         if (!requestDto.getStart().isBefore(requestDto.getEnd())) {
             throw new TimeException("You are not in Nolan movie :)");
@@ -44,29 +54,43 @@ public class BookingController {
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<Object>> bookItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                               @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                               List<@Valid BookItemRequestDto> requestDtos) {
+        log.info("Creating {} bookings, userId={}", requestDtos.size(), userId);
+        return bookingClient.bookItems(userId, requestDtos);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @PathVariable Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> getBooking(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @PathVariable Long bookingId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Get booking {}, userId={}", bookingId, userId);
-        return bookingClient.getBooking(userId, bookingId);
+        return bookingClient.getBooking(userId, bookingId, ifNoneMatch);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateStatus(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @PathVariable  long bookingId,
-                                         @RequestParam boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> updateStatus(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @PathVariable  long bookingId,
+            @RequestParam boolean approved,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Updating booking {}, userId={}", bookingId, userId);
-        return bookingClient.patchBooking(userId, bookingId, approved);
+        return bookingClient.patchBooking(userId, bookingId, approved, ifMatch);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
-                                                @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-                                                @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllByOwner(
+            @RequestHeader("X-Sharer-User-Id") long ownerId,
+            @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
+            @Positive @RequestParam(name = "size", defaultValue = "10") int size,
+            @RequestParam(name = "after", required = false) String after) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(UnknownStateException::new);
 
-        return bookingClient.getBookingsByOwner(ownerId, state, from, size);
+        return bookingClient.getBookingsByOwner(ownerId, state, from, size, after);
     }
 }
@@ -4,91 +4,215 @@ import org.springframework.http.*;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(HttpHeaders.CONNECTION, "Keep-Alive",
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.TE, HttpHeaders.TRAILER, HttpHeaders.UPGRADE,
+            HttpHeaders.PROXY_AUTHENTICATE, HttpHeaders.PROXY_AUTHORIZATION, HttpHeaders.CONTENT_LENGTH);
+
     protected final RestTemplate rest;
+    @Nullable
+    protected final WebClient web;
+    private final boolean passThrough;
+    @Nullable
+    private final ResponseCache.Region cache;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, false);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable WebClient web, boolean passThrough) {
+        this(rest, web, passThrough, null);
+    }
+
+    /**
+     * @param web         if set, requests are sent through it without blocking the calling thread
+     *                    and response bodies are relayed as raw bytes
+     * @param passThrough whether {@code rest} relays response bodies as raw bytes
+     *                    instead of parsing them into objects
+     * @param cache       if set, responses of {@link #getCached} are kept in it and revalidated with
+     *                    the server before they are served, and writes drop the cached responses
+     *                    of the resource they change
+     */
+    public BaseClient(RestTemplate rest, @Nullable WebClient web, boolean passThrough,
+                      @Nullable ResponseCache.Region cache) {
         this.rest = rest;
+        this.web = web;
+        this.passThrough = passThrough;
+        this.cache = cache;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId,
+                                                            @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, defaultHeaders(userId), parameters, null);
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> getIfNoneMatch(String path, @Nullable Long userId,
+                                                                       @Nullable String ifNoneMatch) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return makeAndSendRequest(HttpMethod.GET, path, headers, null, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected CompletableFuture<ResponseEntity<Object>> getCached(String path, @Nullable Long userId,
+                                                                  @Nullable String ifNoneMatch) {
+        if (cache == null) {
+            return getIfNoneMatch(path, userId, ifNoneMatch);
+        }
+        ResponseCache.Entry cached = cache.get(path, userId);
+        long stamp = cache.stamp();
+        return getIfNoneMatch(path, userId, cached != null ? cached.getHeaders().getETag() : null)
+                .thenApply(response -> {
+                    if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                        return cached.toResponse(ifNoneMatch);
+                    }
+                    ResponseCache.Entry entry = cache.put(path, userId, response, stamp);
+                    return entry != null ? entry.toResponse(ifNoneMatch) : response;
+                });
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> getPage(String path, long userId,
+                                                                Map<String, Object> parameters,
+                                                                @Nullable String after) {
+        if (after == null) {
+            return get(path, userId, parameters);
+        }
+        Map<String, Object> parametersWithCursor = new HashMap<>(parameters);
+        parametersWithCursor.put("after", after);
+        return get(path + "&after={after}", userId, parametersWithCursor);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId,
+                                                                 @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, defaultHeaders(userId), parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId,
+                                                                @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, defaultHeaders(userId), parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId,
+                                                                  @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, defaultHeaders(userId), parameters, body);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> patchIfMatch(String path, long userId,
+                                                                         @Nullable Map<String, Object> parameters,
+                                                                         T body, @Nullable String ifMatch) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (ifMatch != null) {
+            headers.setIfMatch(ifMatch);
+        }
+        return makeAndSendRequest(HttpMethod.PATCH, path, headers, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId,
+                                                               @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, defaultHeaders(userId), parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path,
+                                                                             HttpHeaders headers,
+                                                                             @Nullable Map<String, Object> parameters,
+                                                                             @Nullable T body) {
+        CompletableFuture<ResponseEntity<Object>> response = web != null
+                ? sendAsync(method, path, headers, parameters, body)
+                : CompletableFuture.completedFuture(send(method, path, headers, parameters, body));
+        if (cache != null && method != HttpMethod.GET) {
+            return response.whenComplete((result, error) -> cache.invalidate(method, path));
+        }
+        return response;
+    }
+
+    private <T> ResponseEntity<Object> send(HttpMethod method, String path, HttpHeaders headers,
+                                            @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
 
-        ResponseEntity<Object> shareitServerResponse;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+            if (passThrough) {
+                return relayResponse(exchange(method, path, parameters, requestEntity, byte[].class));
             }
+            return prepareGatewayResponse(exchange(method, path, parameters, requestEntity, Object.class));
         } catch (HttpStatusCodeException e) {
+            if (passThrough) {
+                return relayResponse(new ResponseEntity<>(e.getResponseBodyAsByteArray(), e.getResponseHeaders(),
+                        e.getStatusCode()));
+            }
             return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    private <T, R> ResponseEntity<R> exchange(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                              HttpEntity<T> requestEntity, Class<R> responseType) {
+        if (parameters != null) {
+            return rest.exchange(path, method, requestEntity, responseType, parameters);
+        }
+        return rest.exchange(path, method, requestEntity, responseType);
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> sendAsync(HttpMethod method, String path,
+                                                                    HttpHeaders headers,
+                                                                    @Nullable Map<String, Object> parameters,
+                                                                    @Nullable T body) {
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+
+        return requestWithBody
+                .exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(BaseClient::relayResponse)
+                .toFuture();
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -114,4 +238,17 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
+
+    private static ResponseEntity<Object> relayResponse(ResponseEntity<byte[]> response) {
+        HttpHeaders headers = new HttpHeaders();
+        if (response.getHeaders() == null) {
+            return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+        }
+        response.getHeaders().forEach((name, values) -> {
+            if (HOP_BY_HOP_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                headers.addAll(name, values);
+            }
+        });
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
 }
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection pool shared by the gateway clients. Besides the pool gauges it records
+ * how long requests wait to lease a connection as {@code httpcomponents.httpclient.pool.lease}.
+ */
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager implements MeterBinder {
+    private static final String POOL_NAME = "shareit-server";
+
+    private volatile Timer leaseTimer;
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ConnectionRequest request = super.requestConnection(route, state);
+        Timer timer = leaseTimer;
+        if (timer == null) {
+            return request;
+        }
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                try {
+                    return request.get(timeout, timeUnit);
+                } finally {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new PoolingHttpClientConnectionManagerMetricsBinder(this, POOL_NAME).bindTo(registry);
+        leaseTimer = Timer.builder("httpcomponents.httpclient.pool.lease")
+                .description("Time spent waiting for a connection from the pool")
+                .tag("httpclient", POOL_NAME)
+                .register(registry);
+    }
+}
@@ -0,0 +1,180 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of successful GET responses of the server, shared by all gateway clients.
+ * Entries are keyed by client, path and caller. A forwarded write to a resource makes its
+ * cached responses, and responses still in flight, stale. Every entry carries a strong ETag,
+ * so callers sending a matching {@code If-None-Match} get a 304 without a body.
+ * <p>
+ * A view may also change through writes to other resources, e.g. the bookings shown to the owner
+ * of an item, so an entry is only served after the server has answered 304 to its ETag. The cache
+ * saves the server rendering and sending the body, not the round trip.
+ * Hit and miss counts are published as the {@code cache.*} metrics tagged {@code cache=gateway-responses}.
+ */
+@Component
+public class ResponseCache implements MeterBinder {
+    private static final int ENTRY_OVERHEAD = 256;
+    private static final long MAXIMUM_TRACKED_WRITES = 100_000;
+    private static final String WHOLE_REGION = "";
+
+    private final Cache<Key, Entry> responses;
+    private final Cache<Resource, Long> lastWrites;
+    private final AtomicLong clock = new AtomicLong();
+
+    public ResponseCache(ServerClientProperties properties) {
+        ServerClientProperties.Cache settings = properties.getResponseCache();
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(settings.getMaximumSize().toBytes())
+                .<Key, Entry>weigher((key, entry) -> ENTRY_OVERHEAD + entry.getBody().length)
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+        this.lastWrites = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_TRACKED_WRITES)
+                .expireAfterWrite(settings.getTtl())
+                .build();
+    }
+
+    public Region region(String scope) {
+        return new Region(scope);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, responses, "gateway-responses");
+    }
+
+    /**
+     * Part of the cache used by one client, e.g. {@code /items}.
+     */
+    public class Region {
+        private final String scope;
+
+        private Region(String scope) {
+            this.scope = scope;
+        }
+
+        @Nullable
+        public Entry get(String path, @Nullable Long userId) {
+            Key key = new Key(scope, path, userId);
+            Entry entry = responses.getIfPresent(key);
+            if (entry != null && !isCurrent(path, entry.getStamp())) {
+                responses.invalidate(key);
+                return null;
+            }
+            return entry;
+        }
+
+        /**
+         * Returns a stamp to pass to {@link #put} before the response is requested,
+         * so that a response overtaken by a write is not stored.
+         */
+        public long stamp() {
+            return clock.get();
+        }
+
+        @Nullable
+        public Entry put(String path, @Nullable Long userId, ResponseEntity<Object> response, long stamp) {
+            if (response.getStatusCode() != HttpStatus.OK || !(response.getBody() instanceof byte[])) {
+                return null;
+            }
+            byte[] body = (byte[]) response.getBody();
+            String etag = response.getHeaders().getETag();
+            if (etag == null || etag.startsWith("W/")) {
+                etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            }
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(response.getHeaders().getContentType());
+            headers.setETag(etag);
+            Entry entry = new Entry(body, headers, stamp);
+            if (isCurrent(path, stamp)) {
+                responses.put(new Key(scope, path, userId), entry);
+            }
+            return entry;
+        }
+
+        /**
+         * Marks the resource a write was sent to as changed,
+         * or the whole region if the write changed the collection itself.
+         * Creating a new resource leaves the cached ones in place.
+         */
+        public void invalidate(HttpMethod method, String path) {
+            String resource = resourceOf(path);
+            if (resource.equals(WHOLE_REGION) && method == HttpMethod.POST) {
+                return;
+            }
+            lastWrites.put(new Resource(scope, resource), clock.incrementAndGet());
+        }
+
+        private boolean isCurrent(String path, long stamp) {
+            return stamp >= lastWrite(resourceOf(path)) && stamp >= lastWrite(WHOLE_REGION);
+        }
+
+        private long lastWrite(String resource) {
+            Long write = lastWrites.getIfPresent(new Resource(scope, resource));
+            return write != null ? write : 0;
+        }
+
+        private String resourceOf(String path) {
+            int start = path.startsWith("/") ? 1 : 0;
+            int end = path.indexOf('/', start);
+            return path.substring(start, end < 0 ? path.length() : end);
+        }
+    }
+
+    @Value
+    private static class Key {
+        String scope;
+        String path;
+        Long userId;
+    }
+
+    @Value
+    private static class Resource {
+        String scope;
+        String resource;
+    }
+
+    @Value
+    public static class Entry {
+        byte[] body;
+        HttpHeaders headers;
+        long stamp;
+
+        public ResponseEntity<Object> toResponse(@Nullable String ifNoneMatch) {
+            if (matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(headers.getETag()).build();
+            }
+            return new ResponseEntity<>(body, headers, HttpStatus.OK);
+        }
+
+        private boolean matches(@Nullable String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            String etag = headers.getETag();
+            return Arrays.stream(ifNoneMatch.split(","))
+                    .map(String::trim)
+                    .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                    .anyMatch(tag -> tag.equals("*") || Objects.equals(tag, etag));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.apache.http.HeaderElement;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.protocol.HTTP;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(ServerClientProperties.class)
+public class ServerClientConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public InstrumentedConnectionManager serverConnectionManager(ServerClientProperties properties) {
+        InstrumentedConnectionManager connectionManager = new InstrumentedConnectionManager();
+        connectionManager.setMaxTotal(properties.getPool().getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getPool().getMaxConnectionsPerRoute());
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient serverHttpClient(ServerClientProperties properties,
+                                                InstrumentedConnectionManager connectionManager) {
+        ServerClientProperties.Pool pool = properties.getPool();
+        long keepAlive = pool.getKeepAlive().toMillis();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) pool.getConnectTimeout().toMillis())
+                        .setSocketTimeout((int) pool.getReadTimeout().toMillis())
+                        .setConnectionRequestTimeout((int) pool.getLeaseTimeout().toMillis())
+                        .build())
+                .setKeepAliveStrategy((response, context) -> {
+                    BasicHeaderElementIterator elements =
+                            new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+                    while (elements.hasNext()) {
+                        HeaderElement element = elements.nextElement();
+                        if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                            return Math.min(keepAlive, TimeUnit.SECONDS.toMillis(Long.parseLong(element.getValue())));
+                        }
+                    }
+                    return keepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(pool.getIdleEviction().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public HttpComponentsClientHttpRequestFactory serverRequestFactory(CloseableHttpClient serverHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    @Primary
+    public ConnectionProvider serverConnectionProvider(ServerClientProperties properties) {
+        ServerClientProperties.Pool pool = properties.getPool();
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireTimeout(pool.getLeaseTimeout())
+                .maxIdleTime(pool.getKeepAlive())
+                .evictInBackground(pool.getIdleEviction())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public ReactorClientHttpConnector serverHttpConnector(ServerClientProperties properties,
+                                                          ConnectionProvider serverConnectionProvider) {
+        ServerClientProperties.Pool pool = properties.getPool();
+        return new ReactorClientHttpConnector(HttpClient.create(serverConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) pool.getConnectTimeout().toMillis())
+                .responseTimeout(pool.getReadTimeout()));
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider serverStreamConnectionProvider(ServerClientProperties properties) {
+        return ConnectionProvider.builder("shareit-server-streams")
+                .maxConnections(properties.getStream().getMaxConnections())
+                .pendingAcquireTimeout(properties.getPool().getLeaseTimeout())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ReactorClientHttpConnector serverStreamConnector(
+            ServerClientProperties properties,
+            @Qualifier("serverStreamConnectionProvider") ConnectionProvider serverStreamConnectionProvider) {
+        return new ReactorClientHttpConnector(HttpClient.create(serverStreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getPool().getConnectTimeout().toMillis())
+                .responseTimeout(properties.getStream().getIdleTimeout()));
+    }
+}
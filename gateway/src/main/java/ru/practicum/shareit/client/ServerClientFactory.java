@@ -0,0 +1,71 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+/**
+ * Builds the transports of the gateway clients on top of the shared connection pools.
+ */
+@Component
+@RequiredArgsConstructor
+public class ServerClientFactory {
+    private final ServerClientProperties properties;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final WebClient.Builder webClientBuilder;
+    private final HttpComponentsClientHttpRequestFactory serverRequestFactory;
+    private final ReactorClientHttpConnector serverHttpConnector;
+    @Qualifier("serverStreamConnector")
+    private final ReactorClientHttpConnector serverStreamConnector;
+    private final ResponseCache responseCache;
+
+    public RestTemplate restTemplate(String apiPrefix) {
+        return restTemplateBuilder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(properties.getUrl() + apiPrefix))
+                .requestFactory(() -> serverRequestFactory)
+                .build();
+    }
+
+    @Nullable
+    public WebClient webClient(String apiPrefix) {
+        if (properties.getProxyMode() != ProxyMode.ASYNC) {
+            return null;
+        }
+        return webClientBuilder.clone()
+                .clientConnector(serverHttpConnector)
+                .codecs(codecs -> codecs.defaultCodecs()
+                        .maxInMemorySize((int) properties.getMaxResponseSize().toBytes()))
+                .uriBuilderFactory(new DefaultUriBuilderFactory(properties.getUrl() + apiPrefix))
+                .build();
+    }
+
+    /**
+     * Builds a client for long-lived responses, such as event streams, on a pool of its own,
+     * so that they don't take connections from the other requests. It is built in either proxy mode.
+     */
+    public WebClient streamingWebClient(String apiPrefix) {
+        return webClientBuilder.clone()
+                .clientConnector(serverStreamConnector)
+                .uriBuilderFactory(new DefaultUriBuilderFactory(properties.getUrl() + apiPrefix))
+                .build();
+    }
+
+    @Nullable
+    public ResponseCache.Region responseCache(String apiPrefix) {
+        if (!properties.getResponseCache().isEnabled()) {
+            return null;
+        }
+        return responseCache.region(apiPrefix);
+    }
+
+    public boolean isPassThrough() {
+        return properties.isPassThrough();
+    }
+}
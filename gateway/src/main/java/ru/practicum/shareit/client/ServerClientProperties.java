@@ -0,0 +1,73 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server")
+public class ServerClientProperties {
+    private String url;
+    private ProxyMode proxyMode = ProxyMode.BLOCKING;
+    private boolean passThrough = true;
+    /**
+     * Upper bound for a response body read by the non-blocking proxy, which holds the whole body in memory.
+     */
+    private DataSize maxResponseSize = DataSize.ofMegabytes(16);
+    private final Pool pool = new Pool();
+    private final Cache responseCache = new Cache();
+    private final Stream stream = new Stream();
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private int maxConnections = 200;
+        private int maxConnectionsPerRoute = 200;
+        /**
+         * How long an idle connection is kept open when the server does not send a Keep-Alive timeout.
+         */
+        private Duration keepAlive = Duration.ofSeconds(30);
+        /**
+         * Idle connections older than this are closed by a background thread.
+         */
+        private Duration idleEviction = Duration.ofMinutes(1);
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(30);
+        /**
+         * How long a request waits for a free connection before it fails.
+         */
+        private Duration leaseTimeout = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private boolean enabled = true;
+        /**
+         * Upper bound for the cached response bodies.
+         */
+        private DataSize maximumSize = DataSize.ofMegabytes(16);
+        /**
+         * How long a response is served from the cache. Changes made through other resources,
+         * such as a booking changing the last/next booking of an item, become visible after it.
+         */
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Stream {
+        /**
+         * Upper bound for the event streams relayed at once. Every stream holds its own connection to the server.
+         */
+        private int maxConnections = 20000;
+        /**
+         * A stream that receives nothing from the server, not even a heartbeat, for this long is closed.
+         */
+        private Duration idleTimeout = Duration.ofSeconds(60);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import javax.validation.ConstraintViolationException;
 
@@ -80,6 +81,14 @@ public class ErrorHandler {
         return e.getMessage();
     }
 
+    @ExceptionHandler
+    public ResponseEntity<byte[]> handleWebClientResponseException(WebClientResponseException e) {
+        log.info("{} {}", e.getRawStatusCode(), e.getMessage());
+        return ResponseEntity.status(e.getRawStatusCode())
+                .headers(headers -> headers.setContentType(e.getHeaders().getContentType()))
+                .body(e.getResponseBodyAsByteArray());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public String handleServerException(ServerException e) {
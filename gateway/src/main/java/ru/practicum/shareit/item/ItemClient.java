@@ -1,17 +1,15 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -19,28 +17,24 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(ServerClientFactory clients) {
+        super(clients.restTemplate(API_PREFIX), clients.webClient(API_PREFIX), clients.isPassThrough(),
+                clients.responseCache(API_PREFIX));
     }
 
-    public ResponseEntity<Object> getItems(long userId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getItems(long userId, Integer from, Integer size, String after) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("?from={from}&size={size}", userId, parameters);
+        return getPage("?from={from}&size={size}", userId, parameters, after);
     }
 
-    public ResponseEntity<Object> getItem(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getItem(long userId, long itemId, String ifNoneMatch) {
+        return getCached("/" + itemId, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getItemByText(String text, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> getItemByText(String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -49,15 +43,22 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", null, parameters);
     }
 
-    public ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> createItem(long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> createComment(long userId, long itemId, CommentDto commentDto) {
+    public CompletableFuture<ResponseEntity<Object>> createComment(long userId, long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 
-    public ResponseEntity<Object> patchItem(long userId, long id, ItemDto itemDto) {
-        return patch("/" + id, userId, itemDto);
+    public CompletableFuture<ResponseEntity<Object>> getComments(long userId, long itemId, int size, String after) {
+        Map<String, Object> parameters = Map.of(
+                "size", size
+        );
+        return getPage("/" + itemId + "/comments?size={size}", userId, parameters, after);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> patchItem(long userId, long id, ItemDto itemDto, String ifMatch) {
+        return patchIfMatch("/" + id, userId, null, itemDto, ifMatch);
     }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -15,6 +16,7 @@ import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.springframework.http.RequestEntity.delete;
 
@@ -28,49 +30,66 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllBy(@RequestHeader("X-Sharer-User-Id") long sharerId,
-                                           @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                           @RequestParam(defaultValue = "100") @Positive int size) {
-        return itemClient.getItems(sharerId, from, size);
+    public CompletableFuture<ResponseEntity<Object>> getAllBy(
+            @RequestHeader("X-Sharer-User-Id") long sharerId,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "100") @Positive int size,
+            @RequestParam(required = false) String after) {
+        return itemClient.getItems(sharerId, from, size, after);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") long sharerId,
-                                                 @PathVariable long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> getById(
+            @RequestHeader("X-Sharer-User-Id") long sharerId,
+            @PathVariable long itemId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Get sharerId {}, itemId={}", sharerId, itemId);
-        return itemClient.getItem(sharerId, itemId);
+        return itemClient.getItem(sharerId, itemId, ifNoneMatch);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getByText(@RequestParam String text,
-                                   @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                   @RequestParam(defaultValue = "100") @Positive int size) {
+    public CompletableFuture<ResponseEntity<Object>> getByText(
+            @RequestParam String text,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "100") @Positive int size) {
 
             if (text.isBlank()) {
-                return new ResponseEntity<>(List.of(), HttpStatus.OK);
+                return CompletableFuture.completedFuture(new ResponseEntity<>(List.of(), HttpStatus.OK));
             } else {
                 return itemClient.getItemByText(text, from, size);
             }
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") long sharerId,
-                          @Valid @RequestBody ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") long sharerId,
+                                                            @Valid @RequestBody ItemDto itemDto) {
 
         return itemClient.createItem(sharerId, itemDto);
     }
 
     @PostMapping("{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader("X-Sharer-User-Id") long userId,
-                                    @PathVariable long itemId,
-                                    @Valid @RequestBody CommentDto commentDto) {
+    public CompletableFuture<ResponseEntity<Object>> createComment(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                   @PathVariable long itemId,
+                                                                   @Valid @RequestBody CommentDto commentDto) {
         return itemClient.createComment(userId, itemId, commentDto);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public CompletableFuture<ResponseEntity<Object>> getComments(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @PathVariable long itemId,
+            @RequestParam(defaultValue = "10") @Positive int size,
+            @RequestParam(required = false) String after) {
+        return itemClient.getComments(userId, itemId, size, after);
+    }
+
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@RequestHeader("X-Sharer-User-Id") long sharerId,
-                          @PathVariable long id, @RequestBody ItemDto itemDto) {
-        return itemClient.patchItem(sharerId, id, itemDto);
+    public CompletableFuture<ResponseEntity<Object>> update(
+            @RequestHeader("X-Sharer-User-Id") long sharerId,
+            @PathVariable long id,
+            @RequestBody ItemDto itemDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return itemClient.patchItem(sharerId, id, itemDto, ifMatch);
     }
 
     @DeleteMapping("/{id}")
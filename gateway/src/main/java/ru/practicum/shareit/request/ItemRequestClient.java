@@ -1,49 +1,83 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemRequestClient extends BaseClient {
 
     private static final String API_PREFIX = "/requests";
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> EVENT_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient streams;
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(ServerClientFactory clients) {
+        super(clients.restTemplate(API_PREFIX), clients.webClient(API_PREFIX), clients.isPassThrough(),
+                clients.responseCache(API_PREFIX));
+        this.streams = clients.streamingWebClient(API_PREFIX);
     }
 
-    public ResponseEntity<Object> getItemRequests(long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getItemRequests(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getItemRequest(long userId, Long requestId) {
-        return get("/" + requestId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getItemRequest(long userId, Long requestId,
+                                                                    String ifNoneMatch) {
+        return getCached("/" + requestId, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAllAnotherUsers(long requestorId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllAnotherUsers(
+            long requestorId,
+            Integer from,
+            Integer size,
+            String after) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", requestorId, parameters);
+        return getPage("/all?from={from}&size={size}", requestorId, parameters, after);
+    }
+
+    /**
+     * Relays the event stream of the server without holding a thread. Events are read from the server
+     * only as fast as the caller takes them.
+     */
+    public CompletableFuture<ResponseEntity<Flux<ServerSentEvent<String>>>> stream(long userId,
+                                                                                @Nullable String lastEventId) {
+        return streams.get()
+                .uri("/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .headers(headers -> {
+                    headers.set("X-Sharer-User-Id", String.valueOf(userId));
+                    if (lastEventId != null) {
+                        headers.set("Last-Event-ID", lastEventId);
+                    }
+                })
+                .retrieve()
+                .toEntityFlux(EVENT_TYPE)
+                .map(response -> ResponseEntity.status(response.getStatusCode())
+                        .contentType(MediaType.TEXT_EVENT_STREAM)
+                        .body(response.getBody()))
+                .toFuture();
     }
 
-    public ResponseEntity<Object> create(long requestorId, ItemRequestDto itemRequestDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(long requestorId, ItemRequestDto itemRequestDto) {
         return post("", requestorId, itemRequestDto);
     }
 }
@@ -1,16 +1,22 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
+import java.util.concurrent.CompletableFuture;
+
 @Validated
 @Controller
 @RequiredArgsConstructor
@@ -20,26 +26,37 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader("X-Sharer-User-Id") long requestorId) {
+    public CompletableFuture<ResponseEntity<Object>> getAll(@RequestHeader("X-Sharer-User-Id") long requestorId) {
         return itemRequestClient.getItemRequests(requestorId);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                        @PathVariable long requestId) {
-        return itemRequestClient.getItemRequest(userId, requestId);
+    public CompletableFuture<ResponseEntity<Object>> getById(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @PathVariable long requestId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemRequestClient.getItemRequest(userId, requestId, ifNoneMatch);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllAnotherUsers(@RequestHeader("X-Sharer-User-Id") long requestorId,
-                                                         @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
-                                                         @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
-        return itemRequestClient.getAllAnotherUsers(requestorId, from, size);
+    public CompletableFuture<ResponseEntity<Object>> getAllAnotherUsers(
+            @RequestHeader("X-Sharer-User-Id") long requestorId,
+            @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(name = "size", defaultValue = "10") @Positive int size,
+            @RequestParam(name = "after", required = false) String after) {
+        return itemRequestClient.getAllAnotherUsers(requestorId, from, size, after);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public CompletableFuture<ResponseEntity<Flux<ServerSentEvent<String>>>> stream(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return itemRequestClient.stream(userId, lastEventId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") long requestorId,
-                                             @RequestBody @Valid ItemRequestDto itemRequestDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") long requestorId,
+                                                            @RequestBody @Valid ItemRequestDto itemRequestDto) {
         return itemRequestClient.create(requestorId, itemRequestDto);
     }
 }
@@ -1,47 +1,42 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(ServerClientFactory clients) {
+        super(clients.restTemplate(API_PREFIX), clients.webClient(API_PREFIX), clients.isPassThrough(),
+                clients.responseCache(API_PREFIX));
     }
 
-    public ResponseEntity<Object> getUsers() {
+    public CompletableFuture<ResponseEntity<Object>> getUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> getUser(long id) {
-        return get("/" + id);
+    public CompletableFuture<ResponseEntity<Object>> getUser(long id, String ifNoneMatch) {
+        return getCached("/" + id, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> create(UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> patchUser(long id, UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> patchUser(long id, UserDto userDto) {
         return patch("/" + id, userDto);
     }
 
-    public ResponseEntity<Object> deleteUser(long id) {
+    public CompletableFuture<ResponseEntity<Object>> deleteUser(long id) {
 
         return delete("/" + id);
     }
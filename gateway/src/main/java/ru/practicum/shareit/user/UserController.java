@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -8,6 +9,8 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.util.Create;
 import ru.practicum.shareit.util.Update;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.springframework.http.RequestEntity.delete;
 
 @RestController
@@ -18,27 +21,31 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public CompletableFuture<ResponseEntity<Object>> getAll() {
         return userClient.getUsers();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getById(@PathVariable long id) {
-        return userClient.getUser(id);
+    public CompletableFuture<ResponseEntity<Object>> getById(
+            @PathVariable long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return userClient.getUser(id, ifNoneMatch);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@Validated(Create.class) @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(@Validated(Create.class) @RequestBody UserDto userDto) {
         return userClient.create(userDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> patch(@PathVariable long id, @Validated(Update.class) @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> patch(
+            @PathVariable long id,
+            @Validated(Update.class) @RequestBody UserDto userDto) {
         return userClient.patchUser(id, userDto);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteById(@PathVariable long userId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteById(@PathVariable long userId) {
 
         return userClient.deleteUser(userId);
     }
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaseClientAsyncTest {
+    private static final int PAGE_SIZE = 1024 * 1024;
+
+    private final byte[] page = new byte[PAGE_SIZE];
+    private HttpServer server;
+    private BaseClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        Arrays.fill(page, (byte) 'a');
+        page[0] = '"';
+        page[PAGE_SIZE - 1] = '"';
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, page.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(page);
+            }
+        });
+        server.start();
+
+        ServerClientProperties properties = new ServerClientProperties();
+        properties.setUrl("http://localhost:" + server.getAddress().getPort());
+        properties.setProxyMode(ProxyMode.ASYNC);
+        ServerClientFactory clients = new ServerClientFactory(properties, new RestTemplateBuilder(),
+                WebClient.builder(), new HttpComponentsClientHttpRequestFactory(), new ReactorClientHttpConnector(),
+                new ReactorClientHttpConnector(), new ResponseCache(properties));
+        client = new BaseClient(clients.restTemplate("/items"), clients.webClient("/items"), true);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void get_shouldRelayBodyLargerThanDefaultCodecLimit() {
+        assertNotNull(client.web);
+
+        ResponseEntity<Object> response = client.get("", 1L).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(page, (byte[]) response.getBody());
+    }
+}
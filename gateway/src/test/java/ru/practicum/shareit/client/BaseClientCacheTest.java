@@ -0,0 +1,105 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BaseClientCacheTest {
+    private final AtomicReference<String> lastBooking = new AtomicReference<>("null");
+    private final AtomicInteger version = new AtomicInteger();
+    private final AtomicInteger renderedItems = new AtomicInteger();
+    private HttpServer server;
+    private ItemClient itemClient;
+    private BookingClient bookingClient;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items/1", exchange -> {
+            String etag = "\"" + version.get() + "\"";
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.getResponseHeaders().add("ETag", etag);
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            renderedItems.incrementAndGet();
+            exchange.getResponseHeaders().add("ETag", etag);
+            respond(exchange, "{\"id\":1,\"lastBooking\":" + lastBooking.get() + "}");
+        });
+        server.createContext("/bookings/7", exchange -> {
+            lastBooking.set("{\"id\":7}");
+            version.incrementAndGet();
+            respond(exchange, "{\"id\":7,\"status\":\"APPROVED\"}");
+        });
+        server.start();
+
+        ServerClientProperties properties = new ServerClientProperties();
+        properties.setUrl("http://localhost:" + server.getAddress().getPort());
+        ServerClientFactory clients = new ServerClientFactory(properties, new RestTemplateBuilder(),
+                WebClient.builder(), new HttpComponentsClientHttpRequestFactory(), new ReactorClientHttpConnector(),
+                new ReactorClientHttpConnector(), new ResponseCache(properties));
+        itemClient = new ItemClient(clients);
+        bookingClient = new BookingClient(clients);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void getItem_shouldServeCachedBodyWhileServerAnswersNotModified() {
+        itemClient.getItem(1L, 1L, null).join();
+
+        ResponseEntity<Object> response = itemClient.getItem(1L, 1L, null).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("{\"id\":1,\"lastBooking\":null}", body(response));
+        assertEquals(1, renderedItems.get());
+    }
+
+    @Test
+    void getItem_shouldShowBookingApprovedAfterOwnerViewWasCached() {
+        itemClient.getItem(1L, 1L, null).join();
+
+        bookingClient.patchBooking(1L, 7L, true, null).join();
+        ResponseEntity<Object> response = itemClient.getItem(1L, 1L, null).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("{\"id\":1,\"lastBooking\":{\"id\":7}}", body(response));
+        assertEquals("\"1\"", response.getHeaders().getETag());
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.client;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares latency and allocation of relaying a large JSON page through {@link BaseClient}
+ * with the body parsed into objects and with the raw bytes passed through. Each call includes
+ * writing the body back out, as the gateway does for its own response. Runs only with
+ * {@code -Dbenchmark=true}; the page size can be set with {@code -Dbenchmark.bookings=1000}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PassThroughBenchmarkTest {
+
+    private static final int WARMUP = 500;
+    private static final int RUNS = 2_000;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private HttpServer server;
+    private byte[] page;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+        page = bookingsPage(Integer.getInteger("benchmark.bookings", 1000));
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/bookings", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, page.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(page);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void compareObjectAndPassThroughBodies() throws IOException {
+        for (boolean passThrough : new boolean[]{false, true}) {
+            TestClient client = new TestClient(passThrough);
+            for (int i = 0; i < WARMUP; i++) {
+                relay(client);
+            }
+
+            long[] nanos = new long[RUNS];
+            long allocatedBefore = allocatedBytes();
+            for (int i = 0; i < RUNS; i++) {
+                long start = System.nanoTime();
+                relay(client);
+                nanos[i] = System.nanoTime() - start;
+            }
+            long allocatedPerCall = (allocatedBytes() - allocatedBefore) / RUNS;
+
+            Arrays.sort(nanos);
+            log.info("passThrough={} bodyBytes={} p50={}us p99={}us allocated={}KB/call", passThrough, page.length,
+                    nanos[RUNS / 2] / 1000, nanos[RUNS * 99 / 100] / 1000, allocatedPerCall / 1024);
+        }
+    }
+
+    private void relay(TestClient client) throws IOException {
+        ResponseEntity<Object> response = client.getPage();
+        assertEquals(200, response.getStatusCodeValue());
+        if (response.getBody() instanceof byte[]) {
+            OutputStream.nullOutputStream().write((byte[]) response.getBody());
+        } else {
+            mapper.writeValue(OutputStream.nullOutputStream(), response.getBody());
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static byte[] bookingsPage(int bookings) {
+        StringJoiner json = new StringJoiner(",", "[", "]");
+        for (int i = 1; i <= bookings; i++) {
+            json.add("{\"id\":" + i + ",\"start\":\"2023-05-20T12:00:00\",\"end\":\"2023-05-24T12:00:00\","
+                    + "\"item\":{\"id\":" + (i % 50) + ",\"name\":\"Дрель ударная\"},"
+                    + "\"booker\":{\"id\":" + (i % 20) + ",\"name\":\"Oleg\"},\"status\":\"APPROVED\"}");
+        }
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private class TestClient extends BaseClient {
+        TestClient(boolean passThrough) {
+            super(
+                    new RestTemplateBuilder()
+                            .uriTemplateHandler(new DefaultUriBuilderFactory("http://localhost:"
+                                    + server.getAddress().getPort() + "/bookings"))
+                            .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                            .build(),
+                    null,
+                    passThrough
+            );
+        }
+
+        ResponseEntity<Object> getPage() {
+            return get("", 1L).join();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+    private final ResponseCache.Region items = new ResponseCache(new ServerClientProperties()).region("/items");
+
+    @Test
+    void get_shouldReturnStoredResponseForSameCaller() {
+        items.put("/1", 1L, response("{\"id\":1}"), items.stamp());
+
+        ResponseCache.Entry entry = items.get("/1", 1L);
+
+        assertNotNull(entry);
+        assertEquals("{\"id\":1}", new String(entry.getBody(), StandardCharsets.UTF_8));
+        assertNotNull(entry.getHeaders().getETag());
+        assertNull(items.get("/1", 2L));
+    }
+
+    @Test
+    void put_shouldNotStoreErrorResponse() {
+        items.put("/1", 1L, new ResponseEntity<>(new byte[0], HttpStatus.NOT_FOUND), items.stamp());
+
+        assertNull(items.get("/1", 1L));
+    }
+
+    @Test
+    void invalidate_shouldDropResourceForAllCallers() {
+        items.put("/1", 1L, response("{\"id\":1}"), items.stamp());
+        items.put("/1", 2L, response("{\"id\":1}"), items.stamp());
+        items.put("/2", 1L, response("{\"id\":2}"), items.stamp());
+
+        items.invalidate(HttpMethod.POST, "/1/comment");
+
+        assertNull(items.get("/1", 1L));
+        assertNull(items.get("/1", 2L));
+        assertNotNull(items.get("/2", 1L));
+    }
+
+    @Test
+    void put_shouldNotStoreResponseOvertakenByWrite() {
+        long stamp = items.stamp();
+        items.invalidate(HttpMethod.PATCH, "/1");
+
+        items.put("/1", 1L, response("{\"id\":1}"), stamp);
+
+        assertNull(items.get("/1", 1L));
+    }
+
+    @Test
+    void invalidate_shouldKeepResourcesOnCreate() {
+        items.put("/1", 1L, response("{\"id\":1}"), items.stamp());
+
+        items.invalidate(HttpMethod.POST, "");
+
+        assertNotNull(items.get("/1", 1L));
+    }
+
+    @Test
+    void toResponse_shouldReturnNotModifiedIfEtagMatches() {
+        ResponseCache.Entry entry = items.put("/1", 1L, response("{\"id\":1}"), items.stamp());
+        String etag = entry.getHeaders().getETag();
+
+        ResponseEntity<Object> notModified = entry.toResponse("\"other\", " + etag);
+        ResponseEntity<Object> modified = entry.toResponse("\"other\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+        assertEquals(etag, notModified.getHeaders().getETag());
+        assertEquals(HttpStatus.OK, modified.getStatusCode());
+    }
+
+    private static ResponseEntity<Object> response(String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new ResponseEntity<>(body.getBytes(StandardCharsets.UTF_8), headers, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.ClientHttpConnectorAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientConfig;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ServerClientConfigTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(RestTemplateAutoConfiguration.class,
+                    ClientHttpConnectorAutoConfiguration.class, WebClientAutoConfiguration.class))
+            .withUserConfiguration(ServerClientConfig.class, ServerClientFactory.class, ResponseCache.class)
+            .withPropertyValues("shareit-server.url=http://localhost:9090",
+                    "shareit-server.pool.max-connections=50",
+                    "shareit-server.pool.read-timeout=30s",
+                    "shareit-server.stream.max-connections=5000",
+                    "shareit-server.stream.idle-timeout=60s");
+
+    @Test
+    void streamingWebClient_shouldUseStreamConnectorAndPool() {
+        contextRunner.run(context -> {
+            ServerClientFactory factory = context.getBean(ServerClientFactory.class);
+            ReactorClientHttpConnector streamConnector =
+                    context.getBean("serverStreamConnector", ReactorClientHttpConnector.class);
+
+            assertSame(streamConnector, ReflectionTestUtils.getField(factory, "serverStreamConnector"));
+            HttpClientConfig config = configuration(streamConnector);
+            assertEquals(5000, connectionProvider(config).maxConnections());
+            assertEquals(Duration.ofSeconds(60), config.responseTimeout());
+        });
+    }
+
+    @Test
+    void webClient_shouldUseServerConnectorAndPool() {
+        contextRunner.run(context -> {
+            ServerClientFactory factory = context.getBean(ServerClientFactory.class);
+            ReactorClientHttpConnector connector =
+                    context.getBean("serverHttpConnector", ReactorClientHttpConnector.class);
+
+            assertSame(connector, ReflectionTestUtils.getField(factory, "serverHttpConnector"));
+            HttpClientConfig config = configuration(connector);
+            assertEquals(50, connectionProvider(config).maxConnections());
+            assertEquals(Duration.ofSeconds(30), config.responseTimeout());
+        });
+    }
+
+    private static HttpClientConfig configuration(ReactorClientHttpConnector connector) {
+        HttpClient httpClient = (HttpClient) ReflectionTestUtils.getField(connector, "httpClient");
+        return httpClient.configuration();
+    }
+
+    private static ConnectionProvider connectionProvider(HttpClientConfig config) {
+        return ReflectionTestUtils.invokeMethod(config, "connectionProvider");
+    }
+}
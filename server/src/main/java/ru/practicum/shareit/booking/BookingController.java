@@ -1,11 +1,16 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.BookingDtoBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.List;
 
@@ -23,33 +28,53 @@ public class BookingController {
         return bookingService.create(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingDtoBatchResult> createAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @RequestBody List<BookingDtoInput> bookingDtos) {
+        return bookingService.createAll(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
-    public BookingDtoOutput updateStatus(@RequestHeader("X-Sharer-User-Id") long sharerId,
-                                         @PathVariable  long bookingId,
-                                         @RequestParam boolean approved) {
+    public BookingDtoOutput updateStatus(
+            @RequestHeader("X-Sharer-User-Id") long sharerId,
+            @PathVariable  long bookingId,
+            @RequestParam boolean approved,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        return bookingService.updateStatus(sharerId, bookingId, approved);
+        return bookingService.updateStatus(sharerId, bookingId, approved, ifMatch);
     }
 
     @GetMapping("/{bookingId}")
     public BookingDtoOutput getById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                    @PathVariable long bookingId) {
+                                    @PathVariable long bookingId,
+                                    WebRequest request) {
+        if (request.checkNotModified(bookingService.getETag(userId, bookingId))) {
+            return null;
+        }
         return bookingService.getById(userId, bookingId);
     }
 
     @GetMapping
-    public List<BookingDtoOutput> getAllByUser(@RequestHeader("X-Sharer-User-Id") long userId,
-                                               @RequestParam State state,
-                                               @RequestParam int from,
-                                               @RequestParam int size) {
-        return bookingService.getAllByUser(userId, state, from, size);
+    public ResponseEntity<List<BookingDtoOutput>> getAllByUser(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                               @RequestParam State state,
+                                                               @RequestParam int from,
+                                                               @RequestParam int size,
+                                                               @RequestParam(required = false) String after) {
+        List<BookingDtoOutput> bookings = after == null
+                ? bookingService.getAllByUser(userId, state, from, size)
+                : bookingService.getAllByUserAfter(userId, state, after, size);
+        return PageCursor.toResponse(bookings, size, b -> PageCursor.encode(b.getStart(), b.getId()));
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoOutput> getAllByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
-                                                @RequestParam State state,
-                                                @RequestParam int from,
-                                                @RequestParam int size) {
-        return bookingService.getAllByOwner(ownerId, state, from, size);
+    public ResponseEntity<List<BookingDtoOutput>> getAllByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                                @RequestParam State state,
+                                                                @RequestParam int from,
+                                                                @RequestParam int size,
+                                                                @RequestParam(required = false) String after) {
+        List<BookingDtoOutput> bookings = after == null
+                ? bookingService.getAllByOwner(ownerId, state, from, size)
+                : bookingService.getAllByOwnerAfter(ownerId, state, after, size);
+        return PageCursor.toResponse(bookings, size, b -> PageCursor.encode(b.getStart(), b.getId()));
     }
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time-derived phase of a booking, kept in the {@code phase} column by the lifecycle service so that
+ * the CURRENT, PAST and FUTURE listings filter by equality instead of comparing dates with now.
+ */
+public enum Phase {
+    UPCOMING, ACTIVE, FINISHED;
+
+    public static Phase at(LocalDateTime start, LocalDateTime end, LocalDateTime date) {
+        if (date.isBefore(start)) {
+            return UPCOMING;
+        }
+        return date.isBefore(end) ? ACTIVE : FINISHED;
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BookingDtoBatchResult {
+    private int index;
+    private BookingDtoOutput booking;
+    private String error;
+}
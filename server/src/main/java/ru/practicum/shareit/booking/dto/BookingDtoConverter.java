@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.dto;
 
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.index.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.Status;
 import ru.practicum.shareit.item.dto.ItemDtoShort;
@@ -18,6 +19,13 @@ public class BookingDtoConverter  {
                 booking.getStatus());
     }
 
+    public static BookingDtoOutput toOutputDto(BookingOutputView booking) {
+        return new BookingDtoOutput(booking.getId(), booking.getStart(), booking.getEnd(),
+                new ItemDtoShort(booking.getItemId(), booking.getItemName()),
+                new UserDtoShort(booking.getBookerId(), booking.getBookerName()),
+                booking.getStatus());
+    }
+
     public static Booking fromInputDto(BookingDtoInput bookingDtoInput, Item item, User user) {
         return new Booking(null, bookingDtoInput.getStart(), bookingDtoInput.getEnd(),
                 item, user, Status.WAITING);
@@ -26,4 +34,12 @@ public class BookingDtoConverter  {
     public static BookingDtoOnlyIdAndBookerId toDtoOnlyIdAndBookerId(Booking booking) {
         return new BookingDtoOnlyIdAndBookerId(booking.getId(), booking.getBooker().getId());
     }
+
+    public static BookingDtoOnlyIdAndBookerId toDtoOnlyIdAndBookerId(BookingInterval interval) {
+        return new BookingDtoOnlyIdAndBookerId(interval.getId(), interval.getBookerId());
+    }
+
+    public static BookingDtoOnlyIdAndBookerId toDtoOnlyIdAndBookerId(ItemBookingView view) {
+        return new BookingDtoOnlyIdAndBookerId(view.getId(), view.getBookerId());
+    }
 }
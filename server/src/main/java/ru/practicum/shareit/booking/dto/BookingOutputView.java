@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.item.Status;
+
+import java.time.LocalDateTime;
+
+public interface BookingOutputView {
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    Long getItemId();
+
+    String getItemName();
+
+    Long getBookerId();
+
+    String getBookerName();
+
+    Status getStatus();
+
+    Long getOwnerId();
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface BookingVersionView {
+    Long getVersion();
+
+    Long getBookerId();
+
+    Long getBookerVersion();
+
+    Long getOwnerId();
+
+    String getItemName();
+}
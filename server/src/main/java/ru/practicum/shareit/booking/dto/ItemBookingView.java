@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface ItemBookingView {
+    Long getItemId();
+
+    Long getId();
+
+    Long getBookerId();
+
+    Boolean getIsNext();
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.index;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface BookingIndexService {
+    boolean hasApprovedOverlap(long itemId, LocalDateTime start, LocalDateTime end);
+
+    Optional<BookingInterval> getLastBooking(long itemId, LocalDateTime date);
+
+    Optional<BookingInterval> getNextBooking(long itemId, LocalDateTime date);
+
+    Optional<LocalDateTime> getNextStart(long itemId, LocalDateTime date);
+
+    void add(Booking booking);
+
+    void remove(Booking booking);
+
+    void removeItem(long itemId);
+
+    void clear();
+}
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.Status;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static ru.practicum.shareit.util.TransactionHooks.afterCommit;
+
+/**
+ * Keeps APPROVED bookings of every item as a set of {@code [start, end)} intervals sorted by start.
+ * The nearest interval on either side of a date answers last/next lookups in O(log n). Bookings approved
+ * before the overlap check existed may overlap, so an overlap lookup walks back from the end of the period
+ * until intervals start more than the longest booking of the item before the period.
+ * <p>
+ * As in the owner's item list before the index, the last booking is the one that ends latest among those
+ * started by a date, and the next booking is the one that ends first among those starting after it; ties go
+ * to the higher and the lower id. The same walk bounded by the longest booking finds them. The single item
+ * view now shows the same bookings: it used to count bookings of any status and take the last booking
+ * that ended first.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingIndexServiceImpl implements BookingIndexService {
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, Intervals> intervalsByItem = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        bookingRepository.findBookingsByStatus(Status.APPROVED).forEach(this::addNow);
+        log.debug("Booking index loaded for {} items", intervalsByItem.size());
+    }
+
+    @Override
+    public boolean hasApprovedOverlap(long itemId, LocalDateTime start, LocalDateTime end) {
+        Intervals intervals = intervalsByItem.get(itemId);
+        if (intervals == null) {
+            return false;
+        }
+        synchronized (intervals) {
+            LocalDateTime earliestStart = start.minus(intervals.longest);
+            for (BookingInterval before : intervals.byStart
+                    .headSet(BookingInterval.probe(end, Long.MIN_VALUE), false)
+                    .descendingSet()) {
+                if (before.getEnd().isAfter(start)) {
+                    return true;
+                }
+                if (!before.getStart().isAfter(earliestStart)) {
+                    return false;
+                }
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public Optional<BookingInterval> getLastBooking(long itemId, LocalDateTime date) {
+        Intervals intervals = intervalsByItem.get(itemId);
+        if (intervals == null) {
+            return Optional.empty();
+        }
+        synchronized (intervals) {
+            BookingInterval last = null;
+            for (BookingInterval started : intervals.byStart
+                    .headSet(BookingInterval.probe(date, Long.MAX_VALUE), true)
+                    .descendingSet()) {
+                if (last != null && started.getStart().plus(intervals.longest).isBefore(last.getEnd())) {
+                    break;
+                }
+                if (last == null || BookingInterval.BY_END.compare(started, last) > 0) {
+                    last = started;
+                }
+            }
+            return Optional.ofNullable(last);
+        }
+    }
+
+    @Override
+    public Optional<BookingInterval> getNextBooking(long itemId, LocalDateTime date) {
+        Intervals intervals = intervalsByItem.get(itemId);
+        if (intervals == null) {
+            return Optional.empty();
+        }
+        synchronized (intervals) {
+            BookingInterval next = null;
+            for (BookingInterval upcoming : intervals.byStart
+                    .tailSet(BookingInterval.probe(date, Long.MAX_VALUE), false)) {
+                if (next != null && upcoming.getStart().isAfter(next.getEnd())) {
+                    break;
+                }
+                if (next == null || BookingInterval.BY_END.compare(upcoming, next) < 0) {
+                    next = upcoming;
+                }
+            }
+            return Optional.ofNullable(next);
+        }
+    }
+
+    @Override
+    public Optional<LocalDateTime> getNextStart(long itemId, LocalDateTime date) {
+        Intervals intervals = intervalsByItem.get(itemId);
+        if (intervals == null) {
+            return Optional.empty();
+        }
+        synchronized (intervals) {
+            return Optional.ofNullable(intervals.byStart.higher(BookingInterval.probe(date, Long.MAX_VALUE)))
+                    .map(BookingInterval::getStart);
+        }
+    }
+
+    @Override
+    public void add(Booking booking) {
+        afterCommit(() -> addNow(booking));
+    }
+
+    @Override
+    public void remove(Booking booking) {
+        afterCommit(() -> removeNow(booking));
+    }
+
+    @Override
+    public void removeItem(long itemId) {
+        afterCommit(() -> intervalsByItem.remove(itemId));
+    }
+
+    @Override
+    public void clear() {
+        afterCommit(intervalsByItem::clear);
+    }
+
+    private void addNow(Booking booking) {
+        Intervals intervals = intervalsByItem.computeIfAbsent(booking.getItem().getId(), id -> new Intervals());
+        synchronized (intervals) {
+            intervals.byStart.add(toInterval(booking));
+            Duration length = Duration.between(booking.getStart(), booking.getEnd());
+            if (length.compareTo(intervals.longest) > 0) {
+                intervals.longest = length;
+            }
+        }
+    }
+
+    private void removeNow(Booking booking) {
+        Intervals intervals = intervalsByItem.get(booking.getItem().getId());
+        if (intervals == null) {
+            return;
+        }
+        synchronized (intervals) {
+            intervals.byStart.remove(toInterval(booking));
+        }
+    }
+
+    private static BookingInterval toInterval(Booking booking) {
+        return new BookingInterval(booking.getId(), booking.getBooker().getId(),
+                booking.getStart(), booking.getEnd());
+    }
+
+    private static class Intervals {
+        private final NavigableSet<BookingInterval> byStart = new TreeSet<>(BookingInterval.BY_START);
+        // only grows, so it stays an upper bound after removals
+        private Duration longest = Duration.ZERO;
+    }
+}
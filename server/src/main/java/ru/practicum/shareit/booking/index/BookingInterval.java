@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+@Getter
+@AllArgsConstructor
+public class BookingInterval {
+
+    static final Comparator<BookingInterval> BY_START = Comparator
+            .comparing(BookingInterval::getStart)
+            .thenComparing(BookingInterval::getId);
+    static final Comparator<BookingInterval> BY_END = Comparator
+            .comparing(BookingInterval::getEnd)
+            .thenComparing(BookingInterval::getId);
+
+    private final Long id;
+    private final Long bookerId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    static BookingInterval probe(LocalDateTime date, long id) {
+        return new BookingInterval(id, null, date, date);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last and next APPROVED booking of an item. The pointer stays valid until {@code until}, the start of the
+ * first booking that had not started when it was computed; that is the start of the next booking unless
+ * approved bookings overlap.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingPointer {
+
+    private final BookingInterval last;
+    private final BookingInterval next;
+    @Nullable
+    private final LocalDateTime until;
+
+    public boolean isValidAt(LocalDateTime date) {
+        return until == null || date.isBefore(until);
+    }
+}
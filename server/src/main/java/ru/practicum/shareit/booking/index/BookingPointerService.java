@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.index;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface BookingPointerService {
+    Map<Long, BookingPointer> getAll(Collection<Long> itemsId);
+
+    void refresh(long itemId);
+
+    void remove(long itemId);
+
+    void clear();
+
+    int check();
+}
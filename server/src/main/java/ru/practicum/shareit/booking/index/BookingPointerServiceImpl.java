@@ -0,0 +1,212 @@
+package ru.practicum.shareit.booking.index;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.TimingWheel;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ru.practicum.shareit.util.TransactionHooks.afterCommit;
+
+/**
+ * Materialized last/next APPROVED booking of every item, read in O(1) by the item views.
+ * A pointer is computed from the {@link BookingIndexService} on first read and after an approval or
+ * rejection is committed. When the next booking starts, a {@link TimingWheel} ticking every
+ * {@code shareit.booking-pointer.tick} moves the pointer forward; a read between the start and the tick
+ * recomputes it itself, so the wheel only keeps reads from doing that work. A timer is scheduled only when
+ * a recomputed pointer expires at another time than the one it replaces, so there is about one pending
+ * timer per item with an upcoming booking. Pointers of deleted items are removed.
+ * <p>
+ * {@link #check()} compares every pointer with the query-based answer of
+ * {@link BookingRepository#findLastAndNextByItem_IdIn}. It runs every {@code shareit.booking-pointer.check-interval}
+ * unless that is zero, and mismatches are counted in {@code shareit.booking.pointer.mismatches}.
+ */
+@Slf4j
+@Service
+public class BookingPointerServiceImpl implements BookingPointerService {
+
+    private static final int CHECK_BATCH_SIZE = 500;
+
+    private final BookingIndexService bookingIndexService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final Duration tick;
+    private final Duration checkInterval;
+    private final TimingWheel<Long> wheel;
+    private final Map<Long, BookingPointer> pointers = new ConcurrentHashMap<>();
+    private final AtomicLong mismatches = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+
+    public BookingPointerServiceImpl(BookingIndexService bookingIndexService,
+                                     BookingRepository bookingRepository,
+                                     ItemRepository itemRepository,
+                                     MeterRegistry registry,
+                                     @Value("${shareit.booking-pointer.tick}") Duration tick,
+                                     @Value("${shareit.booking-pointer.wheel-size}") int wheelSize,
+                                     @Value("${shareit.booking-pointer.check-interval}") Duration checkInterval) {
+        this.bookingIndexService = bookingIndexService;
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.tick = tick;
+        this.checkInterval = checkInterval;
+        this.wheel = new TimingWheel<>(tick.toMillis(), wheelSize, toMillis(LocalDateTime.now()));
+        Gauge.builder("shareit.booking.pointers", pointers, Map::size)
+                .description("Items with a materialized last/next booking")
+                .register(registry);
+        Gauge.builder("shareit.booking.pointer.timers", wheel, TimingWheel::size)
+                .description("Pending moves of last/next booking pointers")
+                .register(registry);
+        FunctionCounter.builder("shareit.booking.pointer.mismatches", mismatches, AtomicLong::get)
+                .description("Booking pointers found different from the bookings table")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-pointers");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> run(() -> advance(LocalDateTime.now())),
+                tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+        if (!checkInterval.isZero()) {
+            scheduler.scheduleWithFixedDelay(() -> run(this::check),
+                    checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public Map<Long, BookingPointer> getAll(Collection<Long> itemsId) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingPointer> result = new HashMap<>();
+        for (Long itemId : itemsId) {
+            result.put(itemId, get(itemId, now));
+        }
+        return result;
+    }
+
+    @Override
+    public void refresh(long itemId) {
+        afterCommit(() -> pointers.compute(itemId, (id, pointer) -> compute(id, pointer, LocalDateTime.now())));
+    }
+
+    @Override
+    public void remove(long itemId) {
+        afterCommit(() -> pointers.remove(itemId));
+    }
+
+    @Override
+    public void clear() {
+        afterCommit(pointers::clear);
+    }
+
+    @Override
+    public int check() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> mismatched = new ArrayList<>();
+        long afterId = 0;
+        List<Long> itemsId;
+        do {
+            itemsId = itemRepository.findIdsAfter(afterId, PageRequest.of(0, CHECK_BATCH_SIZE));
+            if (!itemsId.isEmpty()) {
+                afterId = itemsId.get(itemsId.size() - 1);
+                mismatched.addAll(findMismatched(itemsId, now));
+            }
+        } while (itemsId.size() == CHECK_BATCH_SIZE);
+
+        // a commit can land between the query and the pointer refresh, so look at the mismatches once more
+        List<Long> confirmed = mismatched.isEmpty() ? mismatched : findMismatched(mismatched, LocalDateTime.now());
+        for (Long itemId : confirmed) {
+            log.warn("Booking pointer of item {} doesn't match the bookings table", itemId);
+        }
+        mismatches.addAndGet(confirmed.size());
+        return confirmed.size();
+    }
+
+    void advance(LocalDateTime now) {
+        for (Long itemId : wheel.advance(toMillis(now))) {
+            pointers.computeIfPresent(itemId, (id, pointer) ->
+                    pointer.isValidAt(now) ? pointer : compute(id, pointer, now));
+        }
+    }
+
+    private BookingPointer get(long itemId, LocalDateTime now) {
+        BookingPointer pointer = pointers.get(itemId);
+        if (pointer != null && pointer.isValidAt(now)) {
+            return pointer;
+        }
+        return pointers.compute(itemId, (id, current) ->
+                current != null && current.isValidAt(now) ? current : compute(id, current, now));
+    }
+
+    private BookingPointer compute(long itemId, @Nullable BookingPointer previous, LocalDateTime now) {
+        BookingPointer pointer = new BookingPointer(
+                bookingIndexService.getLastBooking(itemId, now).orElse(null),
+                bookingIndexService.getNextBooking(itemId, now).orElse(null),
+                bookingIndexService.getNextStart(itemId, now).orElse(null));
+        // the timer of the previous pointer is still pending if it expires at the same time
+        if (pointer.getUntil() != null
+                && (previous == null || !pointer.getUntil().equals(previous.getUntil()))) {
+            wheel.schedule(itemId, toMillis(pointer.getUntil()));
+        }
+        return pointer;
+    }
+
+    private List<Long> findMismatched(List<Long> itemsId, LocalDateTime now) {
+        Map<Long, Long> lastIds = new HashMap<>();
+        Map<Long, Long> nextIds = new HashMap<>();
+        for (ItemBookingView booking : bookingRepository.findLastAndNextByItem_IdIn(itemsId, now)) {
+            (booking.getIsNext() ? nextIds : lastIds).put(booking.getItemId(), booking.getId());
+        }
+        List<Long> mismatched = new ArrayList<>();
+        for (Long itemId : itemsId) {
+            BookingPointer pointer = get(itemId, now);
+            if (!Objects.equals(idOf(pointer.getLast()), lastIds.get(itemId))
+                    || !Objects.equals(idOf(pointer.getNext()), nextIds.get(itemId))) {
+                mismatched.add(itemId);
+            }
+        }
+        return mismatched;
+    }
+
+    private static Long idOf(BookingInterval booking) {
+        return booking == null ? null : booking.getId();
+    }
+
+    private static long toMillis(LocalDateTime date) {
+        return date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static void run(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("Booking pointer task failed", e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+public interface BookingLifecycleService {
+    void schedule(Booking booking);
+
+    int catchUp();
+}
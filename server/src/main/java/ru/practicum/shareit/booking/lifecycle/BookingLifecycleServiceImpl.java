@@ -0,0 +1,208 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.Phase;
+import ru.practicum.shareit.booking.dto.BookingPeriodView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.util.TimingWheel;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ru.practicum.shareit.util.TransactionHooks.afterCommit;
+
+/**
+ * Moves bookings through {@link Phase UPCOMING, ACTIVE and FINISHED} as their start and end pass.
+ * Transitions due within {@code shareit.booking-lifecycle.horizon} are loaded into a {@link TimingWheel}
+ * and applied in one bulk update per tick; the window slides forward when half of it has passed, and new
+ * bookings that fall into the loaded window are scheduled once committed. A tick whose updates fail is
+ * put back into the wheel and retried on the next tick. On start, and on every window load, phases that
+ * should have changed already are caught up with two bulk updates, so a restart or a missed transition
+ * only delays the change.
+ * <p>
+ * The delay between a transition's time and its update is published as {@code shareit.booking.lifecycle.lag},
+ * rows fixed by a catch-up are counted in {@code shareit.booking.lifecycle.caught-up}.
+ */
+@Slf4j
+@Service
+public class BookingLifecycleServiceImpl implements BookingLifecycleService {
+
+    private static final int UPDATE_BATCH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final Duration tick;
+    private final Duration horizon;
+    private final TimingWheel<Transition> wheel;
+    private final Timer lag;
+    private final AtomicLong caughtUp = new AtomicLong();
+    private volatile LocalDateTime loadedUntil;
+    private ScheduledExecutorService scheduler;
+
+    public BookingLifecycleServiceImpl(BookingRepository bookingRepository,
+                                       MeterRegistry registry,
+                                       @Value("${shareit.booking-lifecycle.tick}") Duration tick,
+                                       @Value("${shareit.booking-lifecycle.wheel-size}") int wheelSize,
+                                       @Value("${shareit.booking-lifecycle.horizon}") Duration horizon) {
+        this.bookingRepository = bookingRepository;
+        this.tick = tick;
+        this.horizon = horizon;
+        LocalDateTime now = LocalDateTime.now();
+        this.loadedUntil = now;
+        this.wheel = new TimingWheel<>(tick.toMillis(), wheelSize, toMillis(now));
+        this.lag = Timer.builder("shareit.booking.lifecycle.lag")
+                .description("Delay between the start or end of a booking and the update of its phase")
+                .register(registry);
+        Gauge.builder("shareit.booking.lifecycle.scheduled", wheel, TimingWheel::size)
+                .description("Booking phase transitions waiting in the timing wheel")
+                .register(registry);
+        FunctionCounter.builder("shareit.booking.lifecycle.caught-up", caughtUp, AtomicLong::get)
+                .description("Booking phases fixed by a catch-up instead of the timing wheel")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        load(LocalDateTime.now());
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-lifecycle");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> run(() -> tick(LocalDateTime.now())),
+                tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public void schedule(Booking booking) {
+        afterCommit(() -> scheduleNext(booking.getId(), booking.getPhase(), booking.getStart(), booking.getEnd()));
+    }
+
+    @Override
+    public int catchUp() {
+        LocalDateTime now = LocalDateTime.now();
+        int finished = bookingRepository.finishEndedBy(now);
+        int activated = bookingRepository.activateStartedBy(now);
+        if (finished + activated > 0) {
+            log.info("Booking phases caught up: {} finished, {} activated", finished, activated);
+        }
+        caughtUp.addAndGet(finished + activated);
+        return finished + activated;
+    }
+
+    void tick(LocalDateTime now) {
+        advance(now);
+        if (now.plus(horizon.dividedBy(2)).isAfter(loadedUntil)) {
+            load(now);
+        }
+    }
+
+    void load(LocalDateTime now) {
+        LocalDateTime from = loadedUntil;
+        LocalDateTime until = now.plus(horizon);
+        // published before the queries, so a booking committed meanwhile is either found or scheduled by itself
+        loadedUntil = until;
+        catchUp();
+        for (BookingPeriodView booking : bookingRepository.findUpcomingStartingBetween(from, until)) {
+            scheduleNext(booking.getId(), Phase.UPCOMING, booking.getStart(), booking.getEnd());
+        }
+        for (BookingPeriodView booking : bookingRepository.findActiveEndingBetween(from, until)) {
+            scheduleNext(booking.getId(), Phase.ACTIVE, booking.getStart(), booking.getEnd());
+        }
+        log.debug("Booking transitions loaded until {}, {} scheduled", until, wheel.size());
+    }
+
+    void advance(LocalDateTime now) {
+        List<Transition> due = wheel.advance(toMillis(now));
+        if (due.isEmpty()) {
+            return;
+        }
+        List<Long> activated = new ArrayList<>();
+        List<Long> finished = new ArrayList<>();
+        for (Transition transition : due) {
+            (transition.phase == Phase.ACTIVE ? activated : finished).add(transition.bookingId);
+        }
+        try {
+            for (List<Long> ids : batches(activated)) {
+                bookingRepository.activateByIdIn(ids);
+            }
+            for (List<Long> ids : batches(finished)) {
+                bookingRepository.finishByIdIn(ids);
+            }
+        } catch (RuntimeException e) {
+            // the updates skip rows already in the target phase, so the whole tick is retried on the next one
+            for (Transition transition : due) {
+                wheel.schedule(transition, toMillis(transition.at));
+            }
+            throw e;
+        }
+        for (Transition transition : due) {
+            lag.record(Duration.between(transition.at, now));
+            if (transition.phase == Phase.ACTIVE) {
+                scheduleNext(transition.bookingId, Phase.ACTIVE, transition.at, transition.end);
+            }
+        }
+    }
+
+    private void scheduleNext(long bookingId, Phase phase, LocalDateTime start, LocalDateTime end) {
+        if (phase == Phase.UPCOMING && !start.isAfter(loadedUntil)) {
+            wheel.schedule(new Transition(bookingId, Phase.ACTIVE, start, end), toMillis(start));
+        } else if (phase == Phase.ACTIVE && !end.isAfter(loadedUntil)) {
+            wheel.schedule(new Transition(bookingId, Phase.FINISHED, end, end), toMillis(end));
+        }
+    }
+
+    private static List<List<Long>> batches(List<Long> ids) {
+        List<List<Long>> batches = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += UPDATE_BATCH_SIZE) {
+            batches.add(ids.subList(i, Math.min(ids.size(), i + UPDATE_BATCH_SIZE)));
+        }
+        return batches;
+    }
+
+    private static long toMillis(LocalDateTime date) {
+        return date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static void run(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("Booking lifecycle task failed", e);
+        }
+    }
+
+    private static class Transition {
+        private final long bookingId;
+        private final Phase phase;
+        private final LocalDateTime at;
+        private final LocalDateTime end;
+
+        private Transition(long bookingId, Phase phase, LocalDateTime at, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.phase = phase;
+            this.at = at;
+            this.end = end;
+        }
+    }
+}
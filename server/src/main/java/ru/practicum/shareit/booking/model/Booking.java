@@ -1,12 +1,13 @@
 package ru.practicum.shareit.booking.model;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import ru.practicum.shareit.booking.Phase;
 import ru.practicum.shareit.item.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.VersionedEntity;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -15,13 +16,13 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 @Table(name = "bookings")
-public class Booking {
+public class Booking extends VersionedEntity {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long id;
     @Column(name = "start_date")
     private LocalDateTime start;
@@ -35,4 +36,18 @@ public class Booking {
     private User booker;
     @Enumerated(EnumType.STRING)
     private Status status;
+    // written on insert and afterwards only by the bulk updates of the lifecycle service,
+    // so that saving a stale copy can't move the phase back
+    @Enumerated(EnumType.STRING)
+    @Column(name = "phase", updatable = false)
+    private Phase phase = Phase.UPCOMING;
+
+    public Booking(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker, Status status) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.item = item;
+        this.booker = booker;
+        this.status = status;
+    }
 }
@@ -1,57 +1,81 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingOutputView;
+import ru.practicum.shareit.booking.dto.BookingPeriodView;
+import ru.practicum.shareit.booking.dto.BookingVersionView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.Status;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Collection;
 import java.util.Optional;
-import java.util.Set;
 
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
 
-    List<Booking> findBookingsByBooker_Id(long bookerId, Pageable pageable);
-
-    List<Booking> findBookingsByBooker_IdAndStartBeforeAndEndAfter(long bookerId, LocalDateTime start,
-                                                                   LocalDateTime end,
-                                                                    Pageable pageable);
-
-    List<Booking> findBookingsByBooker_IdAndEndBefore(long bookerId, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findBookingsByBooker_IdAndStartAfter(long bookerId, LocalDateTime start,
-                                                       Pageable pageable);
-
-    List<Booking> findBookingsByBooker_IdAndStatus(long bookerId, Status status, Pageable pageable);
-
-    List<Booking> findBookingsByItem_Owner_Id(long ownerId, Pageable pageable);
-
-    List<Booking> findBookingsByItem_Owner_IdAndStartBeforeAndEndAfter(long ownerId,
-                                                                       LocalDateTime start, LocalDateTime end,
-                                                                       Pageable pageable);
-
-    List<Booking> findBookingsByItem_Owner_IdAndEndBefore(long ownerId, LocalDateTime end,
-                                                          Pageable pageable);
-
-    List<Booking> findBookingsByItem_Owner_IdAndStartAfter(long ownerId, LocalDateTime start, Pageable pageable);
-
-    List<Booking> findBookingsByItem_Owner_IdAndStatus(long ownerId, Status status, Pageable pageable);
+    List<Booking> findBookingsByStatus(Status status);
 
+    @Query("select b from Booking as b where b.booker.id = ?1 and b.item.id = ?2 and b.end <= ?3")
     List<Booking> findBookingsByBooker_IdAndItem_IdAndEndIsLessThanEqual(long bookerId, long itemId,
                                                                          LocalDateTime localDateTime);
 
-    Optional<Booking> findFirstByItem_IdAndStartIsLessThanEqualOrderByEndAsc(long id, LocalDateTime localDateTime);
-
-    Optional<Booking> findFirstByItem_IdAndStartAfterOrderByEndAsc(long id, LocalDateTime localDateTime);
-
-    @Query(value = "select b from Booking as b where b.item.id in ?1 and b.status = 'APPROVED'" +
-            " and b.start <= ?2 order by b.end desc")
-    List<Booking> findByItem_IdInAndStartIsLessThanEqualOrderByEndDesc(Set<Long> itemsId, LocalDateTime date);
-
-    @Query(value = "select b from Booking as b where b.item.id in ?1 and b.status = 'APPROVED'" +
-            " and b.start > ?2 order by b.end asc")
-    List<Booking> findByItem_IdInAndStartAfterOrderByEndAsc(Set<Long> itemsId, LocalDateTime date);
+    @Query(value = "select t.item_id as itemId, t.id as id, t.booker_id as bookerId, t.is_next as isNext" +
+            " from (select b.id, b.item_id, b.booker_id, b.start_date > :date as is_next," +
+            " row_number() over (partition by b.item_id, b.start_date > :date" +
+            " order by case when b.start_date > :date then b.end_date end asc," +
+            " case when b.start_date > :date then b.id end asc, b.end_date desc, b.id desc) as rn" +
+            " from bookings as b where b.item_id in (:itemsId) and b.status = 'APPROVED') as t" +
+            " where t.rn = 1", nativeQuery = true)
+    List<ItemBookingView> findLastAndNextByItem_IdIn(@Param("itemsId") Collection<Long> itemsId,
+                                                     @Param("date") LocalDateTime date);
+
+    @Query("select b.id as id, b.start as start, b.end as end, i.id as itemId, i.name as itemName," +
+            " u.id as bookerId, u.name as bookerName, b.status as status, i.owner.id as ownerId" +
+            " from Booking as b join b.item as i join b.booker as u where b.id = ?1")
+    Optional<BookingOutputView> findOutputById(long id);
+
+    @Query(value = "select b.version as version, b.booker_id as bookerId, u.version as bookerVersion," +
+            " i.owner_id as ownerId, i.name as itemName" +
+            " from bookings as b join items as i on i.id = b.item_id join users as u on u.id = b.booker_id" +
+            " where b.id = ?1", nativeQuery = true)
+    Optional<BookingVersionView> findVersionById(long id);
+
+    @Query("select b.id as id, b.start as start, b.end as end from Booking as b" +
+            " where b.phase = 'UPCOMING' and b.start > ?1 and b.start <= ?2")
+    List<BookingPeriodView> findUpcomingStartingBetween(LocalDateTime from, LocalDateTime to);
+
+    @Query("select b.id as id, b.start as start, b.end as end from Booking as b" +
+            " where b.phase = 'ACTIVE' and b.end > ?1 and b.end <= ?2")
+    List<BookingPeriodView> findActiveEndingBetween(LocalDateTime from, LocalDateTime to);
+
+    @Transactional
+    @Modifying
+    @Query("update Booking as b set b.phase = 'ACTIVE' where b.id in ?1 and b.phase = 'UPCOMING'")
+    int activateByIdIn(Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update Booking as b set b.phase = 'FINISHED' where b.id in ?1 and b.phase <> 'FINISHED'")
+    int finishByIdIn(Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update Booking as b set b.phase = 'ACTIVE' where b.phase = 'UPCOMING' and b.start <= ?1")
+    int activateStartedBy(LocalDateTime date);
+
+    @Transactional
+    @Modifying
+    @Query("update Booking as b set b.phase = 'FINISHED' where b.phase in ('UPCOMING', 'ACTIVE') and b.end <= ?1")
+    int finishEndedBy(LocalDateTime date);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking as b" +
+            " where b.item.id = ?1 and b.id <> ?2 and b.status = 'APPROVED' and b.start < ?4 and b.end > ?3")
+    boolean existsApprovedOverlap(long itemId, long bookingId, LocalDateTime start, LocalDateTime end);
 }
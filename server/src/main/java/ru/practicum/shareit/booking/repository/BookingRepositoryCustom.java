@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.Role;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+    List<BookingDtoOutput> findAllByRoleAndState(Role role, long userId, State state, int from, int size);
+
+    List<BookingDtoOutput> findAllByRoleAndStateAfter(Role role, long userId, State state,
+                                                      LocalDateTime afterStart, long afterId, int size);
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.Phase;
+import ru.practicum.shareit.booking.Role;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.Status;
+import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDtoShort;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDtoOutput> findAllByRoleAndState(Role role, long userId, State state, int from, int size) {
+        return find(role, userId, state, null, null, from, size);
+    }
+
+    @Override
+    public List<BookingDtoOutput> findAllByRoleAndStateAfter(Role role, long userId, State state,
+                                                             LocalDateTime afterStart, long afterId, int size) {
+        return find(role, userId, state, afterStart, afterId, 0, size);
+    }
+
+    /**
+     * Selects only the columns of {@link BookingDtoOutput}, so neither the item's owner and request
+     * nor any other eager association is loaded. CURRENT, PAST and FUTURE compare the {@link Phase}
+     * kept up to date by the lifecycle service instead of the dates.
+     */
+    private List<BookingDtoOutput> find(Role role, long userId, State state,
+                                        LocalDateTime afterStart, Long afterId, int from, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item", JoinType.INNER);
+        Join<Booking, User> booker = booking.join("booker", JoinType.INNER);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (role == Role.OWNER) {
+            predicates.add(cb.equal(item.get("owner").get("id"), userId));
+        } else {
+            predicates.add(cb.equal(booker.get("id"), userId));
+        }
+        switch (state) {
+            case CURRENT:
+                predicates.add(cb.equal(booking.get("phase"), Phase.ACTIVE));
+                break;
+            case PAST:
+                predicates.add(cb.equal(booking.get("phase"), Phase.FINISHED));
+                break;
+            case FUTURE:
+                predicates.add(cb.equal(booking.get("phase"), Phase.UPCOMING));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"), Status.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), Status.REJECTED));
+                break;
+            default:
+                break;
+        }
+        if (afterStart != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(booking.get("start"), afterStart),
+                    cb.and(cb.equal(booking.get("start"), afterStart), cb.lessThan(booking.get("id"), afterId))));
+        }
+
+        query.multiselect(booking.get("id"), booking.get("start"), booking.get("end"), item.get("id"),
+                        item.get("name"), booker.get("id"), booker.get("name"), booking.get("status"))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(booking.get("start")), cb.desc(booking.get("id")));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(from / size * size)
+                .setMaxResults(size)
+                .getResultStream()
+                .map(row -> new BookingDtoOutput(row.get(0, Long.class), row.get(1, LocalDateTime.class),
+                        row.get(2, LocalDateTime.class),
+                        new ItemDtoShort(row.get(3, Long.class), row.get(4, String.class)),
+                        new UserDtoShort(row.get(5, Long.class), row.get(6, String.class)),
+                        row.get(7, Status.class)))
+                .collect(Collectors.toList());
+    }
+}
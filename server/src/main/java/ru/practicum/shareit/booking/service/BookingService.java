@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingDtoBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 
@@ -9,11 +10,19 @@ import java.util.List;
 public interface BookingService {
     BookingDtoOutput create(long userId, BookingDtoInput bookingDto);
 
-    BookingDtoOutput updateStatus(long sharerId, long id, boolean approved);
+    List<BookingDtoBatchResult> createAll(long userId, List<BookingDtoInput> bookingDtos);
+
+    BookingDtoOutput updateStatus(long sharerId, long id, boolean approved, String ifMatch);
 
     BookingDtoOutput getById(long userId, long id);
 
+    String getETag(long userId, long id);
+
     List<BookingDtoOutput> getAllByUser(long userId, State state, int from, int size);
 
     List<BookingDtoOutput> getAllByOwner(long ownerId, State state, int from, int size);
+
+    List<BookingDtoOutput> getAllByUserAfter(long userId, State state, String after, int size);
+
+    List<BookingDtoOutput> getAllByOwnerAfter(long ownerId, State state, String after, int size);
 }
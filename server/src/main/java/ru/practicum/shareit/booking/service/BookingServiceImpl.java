@@ -2,14 +2,19 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.Phase;
+import ru.practicum.shareit.booking.Role;
 import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingDtoBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoConverter;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.dto.BookingOutputView;
+import ru.practicum.shareit.booking.dto.BookingVersionView;
+import ru.practicum.shareit.booking.index.BookingIndexService;
+import ru.practicum.shareit.booking.index.BookingPointerService;
+import ru.practicum.shareit.booking.lifecycle.BookingLifecycleService;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.*;
@@ -19,10 +24,14 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+import ru.practicum.shareit.util.ETags;
+import ru.practicum.shareit.util.OptimisticRetry;
+import ru.practicum.shareit.util.PageCursor;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -33,6 +42,11 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingIndexService bookingIndexService;
+    private final BookingPointerService bookingPointerService;
+    private final BookingLifecycleService bookingLifecycleService;
+    private final UserCache userCache;
+    private final OptimisticRetry optimisticRetry;
 
     @Override
     public BookingDtoOutput create(long userId, BookingDtoInput bookingDto) {
@@ -45,60 +59,68 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() ->
                         new NotFoundException("Item with id = " + bookingDto.getItemId() + " not found"));
 
-        Booking booking = BookingDtoConverter.fromInputDto(bookingDto, item, user);
-        if (booking.getItem().getOwner().getId() == userId) {
-            throw new AccessException("Owner can't booking item");
-        }
-        if (!item.getAvailable()) {
-            throw new AvailabilityException("Item is not available");
-        }
-
-        booking.setStatus(Status.WAITING);
-
-        Booking newBooking = bookingRepository.save(booking);
+        Booking newBooking = bookingRepository.save(toNewBooking(user, item, bookingDto));
+        bookingLifecycleService.schedule(newBooking);
         return BookingDtoConverter.toOutputDto(newBooking);
     }
 
     @Override
     @Transactional
-    public BookingDtoOutput updateStatus(long sharerId, long id, boolean approved) {
-        log.debug("Start request PATCH to /bookings/{}", id);
-        Booking booking = bookingRepository.findById(id).orElseThrow(() ->
-                new NotFoundException("Booking with this id not found")
-        );
-        userRepository.findById(sharerId)
-                .orElseThrow(() ->
-                        new NotFoundException("User with id = " + sharerId + " not found"));
+    public List<BookingDtoBatchResult> createAll(long userId, List<BookingDtoInput> bookingDtos) {
+        log.debug("Start request POST to /bookings/batch, size = {}", bookingDtos.size());
 
-        if (booking.getItem().getOwner().getId() != sharerId) {
-            throw new AccessException("You are not owner of this item");
+        User user = userRepository.findById(userId)
+                .orElseThrow(() ->
+                        new NotFoundException("User with id = " + userId + " not found"));
+        Set<Long> itemsId = bookingDtos.stream()
+                .map(BookingDtoInput::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllWithOwnerByIdIn(itemsId).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+
+        BookingDtoBatchResult[] results = new BookingDtoBatchResult[bookingDtos.size()];
+        Map<Integer, Booking> newBookings = new LinkedHashMap<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDtoInput bookingDto = bookingDtos.get(i);
+            try {
+                if (bookingDto.getStart() == null || bookingDto.getEnd() == null
+                        || !bookingDto.getStart().isBefore(bookingDto.getEnd())) {
+                    throw new TimeException("Start must be before end");
+                }
+                Item item = items.get(bookingDto.getItemId());
+                if (item == null) {
+                    throw new NotFoundException("Item with id = " + bookingDto.getItemId() + " not found");
+                }
+                newBookings.put(i, toNewBooking(user, item, bookingDto));
+            } catch (TimeException | NotFoundException | AccessException | AvailabilityException e) {
+                results[i] = new BookingDtoBatchResult(i, null, e.getMessage());
+            }
         }
 
-        Status status;
-        if (approved) {
-            status = Status.APPROVED;
-        } else {
-            status = Status.REJECTED;
-        }
-        if (booking.getStatus() == status) {
-            throw new IllegalArgumentException("Same status");
-        }
-        booking.setStatus(status);
+        bookingRepository.saveAll(newBookings.values());
+        newBookings.values().forEach(bookingLifecycleService::schedule);
+        newBookings.forEach((i, booking) ->
+                results[i] = new BookingDtoBatchResult(i, BookingDtoConverter.toOutputDto(booking), null));
 
-        return BookingDtoConverter.toOutputDto(booking);
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public BookingDtoOutput updateStatus(long sharerId, long id, boolean approved, String ifMatch) {
+        log.debug("Start request PATCH to /bookings/{}", id);
+        return optimisticRetry.execute(() -> changeStatus(sharerId, id, approved, ifMatch));
     }
 
     @Override
     public BookingDtoOutput getById(long userId, long id) {
         log.debug("Start request GET to /bookings/{}", id);
-        Booking booking = bookingRepository.findById(id).orElseThrow(() ->
+        BookingOutputView booking = bookingRepository.findOutputById(id).orElseThrow(() ->
                 new NotFoundException("Booking with this id not found")
         );
-        userRepository.findById(userId)
-                .orElseThrow(() ->
-                        new NotFoundException("User with id = " + userId + " not found"));
+        userCache.checkExists(userId, userRepository::findById);
 
-        if (booking.getBooker().getId() == userId || booking.getItem().getOwner().getId() == userId) {
+        if (booking.getBookerId() == userId || booking.getOwnerId() == userId) {
             return BookingDtoConverter.toOutputDto(booking);
         } else {
             throw new AccessException("You are not owner or booker of this item");
@@ -106,84 +128,121 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDtoOutput> getAllByUser(long userId, State state, int from, int size) {
-        log.debug("Start request GET to /bookings");
-        userRepository.findById(userId).orElseThrow(() ->
-                new NotFoundException("User with this id not found")
+    public String getETag(long userId, long id) {
+        BookingVersionView booking = bookingRepository.findVersionById(id).orElseThrow(() ->
+                new NotFoundException("Booking with this id not found")
         );
+        userCache.checkExists(userId, userRepository::findById);
 
-        List<Booking> bookings;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        Pageable pageable = PageRequest.of(from / size, size, sort);
-
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findBookingsByBooker_Id(userId, pageable);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findBookingsByBooker_IdAndStartBeforeAndEndAfter(userId,
-                        LocalDateTime.now(), LocalDateTime.now(), pageable);
-                break;
-            case PAST:
-                bookings = bookingRepository.findBookingsByBooker_IdAndEndBefore(userId,
-                        LocalDateTime.now(), pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findBookingsByBooker_IdAndStartAfter(userId,
-                        LocalDateTime.now(), pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findBookingsByBooker_IdAndStatus(userId,
-                        Status.WAITING, pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findBookingsByBooker_IdAndStatus(userId,
-                        Status.REJECTED, pageable);
-                break;
-            default:
-                throw new UnknownStateException();
+        if (booking.getBookerId() != userId && booking.getOwnerId() != userId) {
+            throw new AccessException("You are not owner or booker of this item");
         }
-        return bookings.stream().map(BookingDtoConverter::toOutputDto).collect(Collectors.toList());
+        return ETags.of(booking.getVersion(), booking.getBookerVersion(), booking.getItemName());
+    }
+
+    @Override
+    public List<BookingDtoOutput> getAllByUser(long userId, State state, int from, int size) {
+        log.debug("Start request GET to /bookings");
+        userCache.checkExists(userId, userRepository::findById);
+
+        return getAllByRole(Role.BOOKER, userId, state, from, size);
     }
 
     @Override
     public List<BookingDtoOutput> getAllByOwner(long ownerId, State state, int from, int size) {
         log.debug("Start request GET to /bookings/owner");
-        userRepository.findById(ownerId).orElseThrow(() ->
-                new NotFoundException("User with this id not found")
+        userCache.checkExists(ownerId, userRepository::findById);
+
+        return getAllByRole(Role.OWNER, ownerId, state, from, size);
+    }
+
+    @Override
+    public List<BookingDtoOutput> getAllByUserAfter(long userId, State state, String after, int size) {
+        log.debug("Start request GET to /bookings?after={}", after);
+        userCache.checkExists(userId, userRepository::findById);
+
+        return getAllByRoleAfter(Role.BOOKER, userId, state, PageCursor.decode(after), size);
+    }
+
+    @Override
+    public List<BookingDtoOutput> getAllByOwnerAfter(long ownerId, State state, String after, int size) {
+        log.debug("Start request GET to /bookings/owner?after={}", after);
+        userCache.checkExists(ownerId, userRepository::findById);
+
+        return getAllByRoleAfter(Role.OWNER, ownerId, state, PageCursor.decode(after), size);
+    }
+
+    private List<BookingDtoOutput> getAllByRole(Role role, long userId, State state, int from, int size) {
+        if (state == State.UNSUPPORTED_STATUS) {
+            throw new UnknownStateException();
+        }
+        return bookingRepository.findAllByRoleAndState(role, userId, state, from, size);
+    }
+
+    private List<BookingDtoOutput> getAllByRoleAfter(Role role, long userId, State state, PageCursor after, int size) {
+        if (state == State.UNSUPPORTED_STATUS) {
+            throw new UnknownStateException();
+        }
+        return bookingRepository.findAllByRoleAndStateAfter(role, userId, state, after.getDateOrThrow(),
+                after.getId(), size);
+    }
+
+    private BookingDtoOutput changeStatus(long sharerId, long id, boolean approved, String ifMatch) {
+        Booking booking = bookingRepository.findById(id).orElseThrow(() ->
+                new NotFoundException("Booking with this id not found")
         );
+        userCache.checkExists(sharerId, userRepository::findById);
+
+        if (booking.getItem().getOwner().getId() != sharerId) {
+            throw new AccessException("You are not owner of this item");
+        }
+        if (ifMatch != null && !ETags.matches(ifMatch, getETag(sharerId, id))) {
+            throw new PreconditionFailedException("Booking with id = " + id + " has been changed");
+        }
 
-        List<Booking> bookings;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        Pageable pageable = PageRequest.of(from / size, size, sort);
-
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findBookingsByItem_Owner_Id(ownerId, pageable);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findBookingsByItem_Owner_IdAndStartBeforeAndEndAfter(ownerId,
-                        LocalDateTime.now(), LocalDateTime.now(), pageable);
-                break;
-            case PAST:
-                bookings = bookingRepository.findBookingsByItem_Owner_IdAndEndBefore(ownerId,
-                        LocalDateTime.now(), pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findBookingsByItem_Owner_IdAndStartAfter(ownerId,
-                        LocalDateTime.now(), pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findBookingsByItem_Owner_IdAndStatus(ownerId,
-                        Status.WAITING, pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findBookingsByItem_Owner_IdAndStatus(ownerId,
-                        Status.REJECTED, pageable);
-                break;
-            default:
-                throw new UnknownStateException();
+        Status status;
+        if (approved) {
+            status = Status.APPROVED;
+        } else {
+            status = Status.REJECTED;
+        }
+        if (booking.getStatus() == status) {
+            throw new IllegalArgumentException("Same status");
+        }
+        if (status == Status.APPROVED) {
+            long itemId = booking.getItem().getId();
+            if (bookingIndexService.hasApprovedOverlap(itemId, booking.getStart(), booking.getEnd())
+                    || bookingRepository.existsApprovedOverlap(itemId, id, booking.getStart(), booking.getEnd())) {
+                throw new AvailabilityException("Item is already booked for this period");
+            }
+            // a concurrent approval of the same item fails this version check and is retried
+            itemRepository.forceIncrementVersion(booking.getItem());
         }
-        return bookings.stream().map(BookingDtoConverter::toOutputDto).collect(Collectors.toList());
+        if (status == Status.APPROVED) {
+            bookingIndexService.add(booking);
+        } else if (booking.getStatus() == Status.APPROVED) {
+            bookingIndexService.remove(booking);
+        }
+        if (status == Status.APPROVED || booking.getStatus() == Status.APPROVED) {
+            bookingPointerService.refresh(booking.getItem().getId());
+        }
+        booking.setStatus(status);
+
+        return BookingDtoConverter.toOutputDto(booking);
+    }
+
+    private Booking toNewBooking(User user, Item item, BookingDtoInput bookingDto) {
+        if (item.getOwner().getId().equals(user.getId())) {
+            throw new AccessException("Owner can't booking item");
+        }
+        if (!item.getAvailable()) {
+            throw new AvailabilityException("Item is not available");
+        }
+        if (bookingIndexService.hasApprovedOverlap(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new AvailabilityException("Item is already booked for this period");
+        }
+        Booking booking = BookingDtoConverter.fromInputDto(bookingDto, item, user);
+        booking.setPhase(Phase.at(booking.getStart(), booking.getEnd(), LocalDateTime.now()));
+        return booking;
     }
-}
\ No newline at end of file
+}
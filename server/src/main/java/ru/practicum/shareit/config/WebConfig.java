@@ -3,7 +3,9 @@ package ru.practicum.shareit.config;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.util.SqlStatementCounter;
 import ru.practicum.shareit.util.StringToStateConverter;
 
 @Configuration
@@ -11,9 +13,15 @@ import ru.practicum.shareit.util.StringToStateConverter;
 public class WebConfig implements WebMvcConfigurer {
 
     private final StringToStateConverter stringToStateConverter;
+    private final SqlStatementCounter sqlStatementCounter;
 
     @Override
     public void addFormatters(FormatterRegistry registry) {
         registry.addConverter(stringToStateConverter);
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlStatementCounter);
+    }
 }
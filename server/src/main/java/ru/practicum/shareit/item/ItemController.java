@@ -1,13 +1,17 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoInput;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookingAndComments;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.List;
 
@@ -20,15 +24,24 @@ public class ItemController {
     private final ItemService itemService;
 
     @GetMapping
-    public List<ItemDtoWithBookingAndComments> getAllBy(@RequestHeader("X-Sharer-User-Id") long sharerId,
-                                                        @RequestParam(defaultValue = "0") int from,
-                                                        @RequestParam(defaultValue = "100") int size) {
-        return itemService.getAll(sharerId, from, size);
+    public ResponseEntity<List<ItemDtoWithBookingAndComments>> getAllBy(
+            @RequestHeader("X-Sharer-User-Id") long sharerId,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(required = false) String after) {
+        List<ItemDtoWithBookingAndComments> items = after == null
+                ? itemService.getAll(sharerId, from, size)
+                : itemService.getAllAfter(sharerId, after, size);
+        return PageCursor.toResponse(items, size, item -> PageCursor.encode(item.getId()));
     }
 
     @GetMapping("/{itemId}")
     public ItemDtoWithBookingAndComments getById(@RequestHeader("X-Sharer-User-Id") long sharerId,
-                                                 @PathVariable long itemId) {
+                                                 @PathVariable long itemId,
+                                                 WebRequest request) {
+        if (request.checkNotModified(itemService.getETag(sharerId, itemId))) {
+            return null;
+        }
         return itemService.getById(sharerId, itemId);
     }
 
@@ -56,10 +69,21 @@ public class ItemController {
         return itemService.createComment(userId, itemId, commentDto);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                        @PathVariable long itemId,
+                                                        @RequestParam(defaultValue = "10") int size,
+                                                        @RequestParam(required = false) String after) {
+        List<CommentDto> comments = itemService.getComments(userId, itemId, after, size);
+        return PageCursor.toResponse(comments, size, comment -> PageCursor.encode(comment.getCreated(),
+                comment.getId()));
+    }
+
     @PatchMapping("/{id}")
     public ItemDto update(@RequestHeader("X-Sharer-User-Id") long sharerId,
-                          @PathVariable long id, @RequestBody ItemDto itemDto) {
-        return itemService.update(sharerId, id, itemDto);
+                          @PathVariable long id, @RequestBody ItemDto itemDto,
+                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return itemService.update(sharerId, id, itemDto, ifMatch);
     }
 
     @DeleteMapping("/{id}")
@@ -12,6 +12,11 @@ public class CommentDtoConverter {
                 comment.getAuthor().getName(), comment.getCreated());
     }
 
+    public static CommentDto toDto(CommentView comment) {
+        return new CommentDto(comment.getId(), comment.getText(),
+                comment.getAuthorName(), comment.getCreated());
+    }
+
     public static Comment fromDto(CommentDto commentDto, Item item, User user) {
         return new Comment(commentDto.getId(), commentDto.getText(),
                 item, user, LocalDateTime.now());
@@ -1,12 +1,33 @@
 package ru.practicum.shareit.item.comment;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItem_Id(long itemId);
+    @Query(value = "select t.id as id, t.item_id as itemId, t.text as text, u.name as authorName," +
+            " t.created as created, t.total as total" +
+            " from (select c.id, c.item_id, c.author_id, c.text, c.created," +
+            " row_number() over (partition by c.item_id order by c.created desc, c.id desc) as rn," +
+            " count(*) over (partition by c.item_id) as total" +
+            " from comments as c where c.item_id in (:itemsId)) as t" +
+            " join users as u on u.id = t.author_id" +
+            " where t.rn <= :limit order by t.item_id, t.rn", nativeQuery = true)
+    List<CommentView> findLatestByItem_IdIn(@Param("itemsId") Collection<Long> itemsId, @Param("limit") int limit);
 
-    List<Comment> findByItem_IdIn(Set<Long> itemsId);
+    @Query("select new ru.practicum.shareit.item.comment.CommentDto(c.id, c.text, a.name, c.created)" +
+            " from Comment as c join c.author as a where c.item.id = ?1" +
+            " order by c.created desc, c.id desc")
+    List<CommentDto> findPageByItem_Id(long itemId, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.comment.CommentDto(c.id, c.text, a.name, c.created)" +
+            " from Comment as c join c.author as a where c.item.id = ?1" +
+            " and (c.created < ?2 or (c.created = ?2 and c.id < ?3))" +
+            " order by c.created desc, c.id desc")
+    List<CommentDto> findPageByItem_IdAfter(long itemId, LocalDateTime created, long id, Pageable pageable);
 }
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item.comment;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Number of comments of an item and the latest of them, newest first.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class CommentSummary {
+
+    public static final CommentSummary EMPTY = new CommentSummary(0, List.of());
+
+    private final long count;
+    private final List<CommentDto> latest;
+
+    public static CommentSummary of(List<CommentView> latest) {
+        if (latest.isEmpty()) {
+            return EMPTY;
+        }
+        return new CommentSummary(latest.get(0).getTotal(), latest.stream()
+                .map(CommentDtoConverter::toDto)
+                .collect(Collectors.toUnmodifiableList()));
+    }
+
+    public CommentSummary with(CommentDto comment, int latestSize) {
+        if (latest.stream().anyMatch(c -> c.getId().equals(comment.getId()))) {
+            return this;
+        }
+        List<CommentDto> newLatest = new ArrayList<>(Math.min(latest.size() + 1, latestSize));
+        newLatest.add(comment);
+        newLatest.addAll(latest.subList(0, Math.min(latest.size(), latestSize - 1)));
+        return new CommentSummary(count + 1, List.copyOf(newLatest));
+    }
+
+    /**
+     * Changes whenever the rendered comments change: a new comment changes the count and the latest ids,
+     * and the summary is reloaded with the new author names when a user is renamed.
+     */
+    public String getVersion() {
+        return latest.stream()
+                .map(comment -> comment.getId() + "/" + comment.getAuthorName())
+                .collect(Collectors.joining(",", count + ":", ""));
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item.comment;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.util.TransactionHooks.afterCommit;
+
+/**
+ * Bounded cache of {@link CommentSummary comment summaries} by item id, so that item reads don't depend on
+ * the number of comments. A new comment is added to the cached summary instead of evicting it; summaries
+ * of all items are dropped when a user changes, since they hold author names. A change committed while
+ * summaries are loaded may be missing from what the load read, so summaries loaded across a change are
+ * dropped again after they are stored.
+ * Hit and miss counts are published as the {@code cache.*} metrics tagged {@code cache=comment-summaries}.
+ */
+@Component
+public class CommentSummaryCache implements MeterBinder {
+
+    private final Cache<Long, CommentSummary> summaries;
+    private final AtomicLong changes = new AtomicLong();
+    @Getter
+    private final int latestSize;
+
+    public CommentSummaryCache(@Value("${shareit.comment-summary.maximum-size}") long maximumSize,
+                               @Value("${shareit.comment-summary.ttl}") Duration ttl,
+                               @Value("${shareit.comment-summary.latest-size}") int latestSize) {
+        this.summaries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.latestSize = latestSize;
+    }
+
+    /**
+     * Returns the summaries of the given items, loading the missing ones with a single call of
+     * {@code loader(itemsId, latestSize)}, e.g. {@link CommentRepository#findLatestByItem_IdIn}.
+     */
+    public Map<Long, CommentSummary> getAll(Collection<Long> itemsId,
+                                            BiFunction<Collection<Long>, Integer, List<CommentView>> loader) {
+        Map<Long, CommentSummary> result = new HashMap<>(summaries.getAllPresent(itemsId));
+        Set<Long> missing = new HashSet<>();
+        for (Long itemId : itemsId) {
+            if (!result.containsKey(itemId)) {
+                missing.add(itemId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        long stamp = changes.get();
+        Map<Long, List<CommentView>> latestByItem = loader.apply(missing, latestSize).stream()
+                .collect(Collectors.groupingBy(CommentView::getItemId));
+        Map<Long, CommentSummary> loaded = new HashMap<>();
+        for (Long itemId : missing) {
+            loaded.put(itemId, CommentSummary.of(latestByItem.getOrDefault(itemId, List.of())));
+        }
+        summaries.putAll(loaded);
+        // a change counted after this check patches or drops the summaries just stored
+        if (changes.get() != stamp) {
+            summaries.invalidateAll(loaded.keySet());
+        }
+        result.putAll(loaded);
+        return result;
+    }
+
+    public CommentSummary get(long itemId, BiFunction<Collection<Long>, Integer, List<CommentView>> loader) {
+        return getAll(Set.of(itemId), loader).get(itemId);
+    }
+
+    public void add(long itemId, CommentDto comment) {
+        afterCommit(() -> {
+            changes.incrementAndGet();
+            summaries.asMap().computeIfPresent(itemId, (id, summary) -> summary.with(comment, latestSize));
+        });
+    }
+
+    public void evict(long itemId) {
+        afterCommit(() -> {
+            changes.incrementAndGet();
+            summaries.invalidate(itemId);
+        });
+    }
+
+    public void evictAll() {
+        afterCommit(() -> {
+            changes.incrementAndGet();
+            summaries.invalidateAll();
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, summaries, "comment-summaries");
+    }
+}
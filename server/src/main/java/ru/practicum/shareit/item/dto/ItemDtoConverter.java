@@ -43,8 +43,16 @@ public class ItemDtoConverter {
                                                                      BookingDtoOnlyIdAndBookerId lastBooking,
                                                                      BookingDtoOnlyIdAndBookerId nextBooking,
                                                                      List<CommentDto> comments) {
+        return toDtoWithBookingAndComments(item, lastBooking, nextBooking, comments, (long) comments.size());
+    }
+
+    public static ItemDtoWithBookingAndComments toDtoWithBookingAndComments(Item item,
+                                                                     BookingDtoOnlyIdAndBookerId lastBooking,
+                                                                     BookingDtoOnlyIdAndBookerId nextBooking,
+                                                                     List<CommentDto> comments,
+                                                                     long commentsCount) {
         return new ItemDtoWithBookingAndComments(item.getId(), item.getName(),
                 item.getDescription(), item.getAvailable(),
-                lastBooking, nextBooking, comments);
+                lastBooking, nextBooking, comments, commentsCount);
     }
 }
@@ -17,4 +17,5 @@ public class ItemDtoWithBookingAndComments {
     private BookingDtoOnlyIdAndBookerId lastBooking;
     private BookingDtoOnlyIdAndBookerId nextBooking;
     private List<CommentDto> comments;
+    private Long commentsCount;
 }
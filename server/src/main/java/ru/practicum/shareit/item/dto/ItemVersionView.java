@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.dto;
+
+/**
+ * Version and owner of an item, read without loading the item and its relations.
+ */
+public interface ItemVersionView {
+    Long getVersion();
+
+    Long getOwnerId();
+}
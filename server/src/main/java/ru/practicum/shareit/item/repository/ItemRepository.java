@@ -3,22 +3,45 @@ package ru.practicum.shareit.item.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemVersionView;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchView;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
 
     @Query("select i from Item as i " +
-            "where (upper(i.name) like upper(concat('%', ?1, '%') ) ) " +
-            "or (upper(i.description) like upper(concat('%', ?1, '%') ) ) " +
+            "where ((upper(i.name) like upper(concat('%', ?1, '%') ) ) " +
+            "or (upper(i.description) like upper(concat('%', ?1, '%') ) )) " +
             "and i.available = true")
     List<Item> findByText(String text, Pageable pageable);
 
+    @Query("select i.id as id, i.name as name, i.description as description, i.available as available " +
+            "from Item as i")
+    List<ItemSearchView> findAllForSearch();
+
+    @Query("select i from Item as i join fetch i.owner left join fetch i.request where i.id in ?1")
+    List<Item> findAllWithOwnerByIdIn(Collection<Long> ids);
+
+    @Query("select i from Item as i where i.owner.id = ?1 order by i.id")
     List<Item> findAllByOwner_Id_OrderByIdAsc(long ownerId, Pageable pageable);
 
+    @Query("select i from Item as i where i.owner.id = ?1 and i.id > ?2 order by i.id")
+    List<Item> findAllByOwner_IdAndIdGreaterThanOrderByIdAsc(long ownerId, long id, Pageable pageable);
+
+    @Query("select i.id from Item as i where i.id > ?1 order by i.id")
+    List<Long> findIdsAfter(long id, Pageable pageable);
+
+    @Query("select i from Item as i where i.request.id in ?1")
     List<Item> findByRequest_IdIn(List<Long> requestsId);
 
+    @Query("select i from Item as i where i.request.id = ?1 order by i.id")
     List<Item> findByRequest_IdOrderById(long requestId);
+
+    @Query("select i.version as version, i.owner.id as ownerId from Item as i where i.id = ?1")
+    Optional<ItemVersionView> findVersionById(long id);
 }
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.model.Item;
+
+public interface ItemRepositoryCustom {
+    void forceIncrementVersion(Item item);
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Bumps the version of the loaded item when the current transaction is flushed. No lock is taken
+     * before that, so a transaction that changed the item concurrently and committed first makes this
+     * one fail the version check with an optimistic locking failure.
+     */
+    @Override
+    public void forceIncrementVersion(Item item) {
+        entityManager.lock(item, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+    }
+}
@@ -0,0 +1,181 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.util.TransactionHooks.afterCommit;
+
+/**
+ * Inverted index over words of item names and descriptions. Every query word matches indexed words
+ * it is a prefix of; an item matches if all query words match it. Items whose name or description
+ * contains the whole query as a substring are found through {@link NgramIndex} and match as well.
+ * Results are ranked by the summed weight of both kinds of matches, a match in the name weighing
+ * more than one in the description.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemSearchServiceImpl implements ItemSearchService {
+
+    static final int NAME_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    private final ItemRepository itemRepository;
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> termsByItem = new HashMap<>();
+    private final Set<Long> availableItems = new HashSet<>();
+    private final NgramIndex ngramIndex = new NgramIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void load() {
+        itemRepository.findAllForSearch()
+                .forEach(item -> indexNow(item.getId(), item.getName(), item.getDescription(), item.getAvailable()));
+        log.debug("Item search index loaded with {} items and {} terms", termsByItem.size(), postings.size());
+    }
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        Set<String> queryTerms = new LinkedHashSet<>(tokenize(text));
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = findByTerms(queryTerms);
+            ngramIndex.findContaining(text).forEach((id, weight) -> scores.merge(id, weight, Integer::sum));
+            return topRanked(scores, from / size * size, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Item item) {
+        long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        Boolean available = item.getAvailable();
+        afterCommit(() -> indexNow(id, name, description, available));
+    }
+
+    @Override
+    public void remove(long itemId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeTerms(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void clear() {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                postings.clear();
+                termsByItem.clear();
+                availableItems.clear();
+                ngramIndex.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> topRanked(Map<Long, Integer> scores, int from, int size) {
+        Comparator<Map.Entry<Long, Integer>> rank = Map.Entry.<Long, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        int limit = from + size;
+        PriorityQueue<Map.Entry<Long, Integer>> top = new PriorityQueue<>(limit + 1, rank.reversed());
+        for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            if (availableItems.contains(entry.getKey())) {
+                top.add(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(top);
+        ranked.sort(rank);
+        return ranked.stream()
+                .skip(from)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, Integer> findByTerms(Set<String> queryTerms) {
+        Map<Long, Integer> scores = null;
+        for (String queryTerm : queryTerms) {
+            Map<Long, Integer> termScores = new HashMap<>();
+            postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).values()
+                    .forEach(items -> items.forEach((id, weight) -> termScores.merge(id, weight, Integer::sum)));
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private void indexNow(long id, String name, String description, Boolean available) {
+        Map<String, Integer> weights = new HashMap<>();
+        tokenize(name).forEach(term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+        tokenize(description).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+
+        lock.writeLock().lock();
+        try {
+            removeTerms(id);
+            weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+            termsByItem.put(id, weights.keySet());
+            ngramIndex.add(id, name, description);
+            if (Boolean.TRUE.equals(available)) {
+                availableItems.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeTerms(long id) {
+        Set<String> terms = termsByItem.remove(id);
+        availableItems.remove(id);
+        ngramIndex.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Integer> items = postings.get(term);
+            items.remove(id);
+            if (items.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.*;
+
+/**
+ * Trigram index over lower-cased item names and descriptions. A substring query is answered by intersecting
+ * the posting lists of its trigrams, smallest first, and verifying the few remaining candidates.
+ * Fragments shorter than a trigram have no posting list and are checked against every indexed text.
+ * Not thread-safe: {@link ItemSearchServiceImpl} guards it with its own lock.
+ */
+class NgramIndex {
+
+    static final int N = 3;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, String[]> textsByItem = new HashMap<>();
+
+    void add(long id, String name, String description) {
+        remove(id);
+        String[] texts = {normalize(name), normalize(description)};
+        textsByItem.put(id, texts);
+        for (String text : texts) {
+            ngrams(text).forEach(gram -> postings.computeIfAbsent(gram, g -> new PostingList()).add(id));
+        }
+    }
+
+    void remove(long id) {
+        String[] texts = textsByItem.remove(id);
+        if (texts == null) {
+            return;
+        }
+        for (String text : texts) {
+            for (String gram : ngrams(text)) {
+                PostingList items = postings.get(gram);
+                if (items != null) {
+                    items.remove(id);
+                    if (items.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    void clear() {
+        postings.clear();
+        textsByItem.clear();
+    }
+
+    /**
+     * Returns ids of items whose name or description contains the fragment, mapped to the weight of the match.
+     */
+    Map<Long, Integer> findContaining(String fragment) {
+        String query = normalize(fragment);
+        Map<Long, Integer> result = new HashMap<>();
+        if (query.isEmpty()) {
+            return result;
+        }
+        for (long id : candidates(query)) {
+            String[] texts = textsByItem.get(id);
+            int weight = (texts[0].contains(query) ? ItemSearchServiceImpl.NAME_WEIGHT : 0)
+                    + (texts[1].contains(query) ? ItemSearchServiceImpl.DESCRIPTION_WEIGHT : 0);
+            if (weight > 0) {
+                result.put(id, weight);
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return textsByItem.size();
+    }
+
+    private Collection<Long> candidates(String query) {
+        if (query.length() < N) {
+            return textsByItem.keySet();
+        }
+        List<PostingList> lists = new ArrayList<>();
+        for (String gram : ngrams(query)) {
+            PostingList items = postings.get(gram);
+            if (items == null) {
+                return List.of();
+            }
+            lists.add(items);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        List<Long> candidates = new ArrayList<>();
+        for (long id : lists.get(0).toArray()) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(id);
+            }
+            if (inAll) {
+                candidates.add(id);
+            }
+        }
+        return candidates;
+    }
+
+    private static Set<String> ngrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + N <= text.length(); i++) {
+            grams.add(text.substring(i, i + N));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT).trim();
+    }
+}
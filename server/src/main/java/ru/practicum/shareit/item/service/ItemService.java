@@ -10,17 +10,23 @@ import java.util.List;
 public interface ItemService {
     List<ItemDtoWithBookingAndComments> getAll(long sharerId, int from, int size);
 
+    List<ItemDtoWithBookingAndComments> getAllAfter(long sharerId, String after, int size);
+
     ItemDtoWithBookingAndComments getById(long sharerId, long id);
 
+    String getETag(long sharerId, long id);
+
     List<ItemDto> getByText(String text, int from, int size);
 
     ItemDto create(long sharerId, ItemDtoInput itemDto);
 
-    ItemDto update(long sharerId, long id, ItemDto itemDto);
+    ItemDto update(long sharerId, long id, ItemDto itemDto, String ifMatch);
 
     void deleteById(long sharerId, long id);
 
     void deleteAll();
 
     CommentDto createComment(long userId, long itemId, CommentDto commentDto);
+
+    List<CommentDto> getComments(long userId, long itemId, String after, int size);
 }
@@ -7,78 +7,91 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.dto.BookingDtoConverter;
 import ru.practicum.shareit.booking.dto.BookingDtoOnlyIdAndBookerId;
+import ru.practicum.shareit.booking.index.BookingIndexService;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingPointer;
+import ru.practicum.shareit.booking.index.BookingPointerService;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.CommentAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.PreconditionFailedException;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CommentDtoConverter;
 import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.CommentSummary;
+import ru.practicum.shareit.item.comment.CommentSummaryCache;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoConverter;
+import ru.practicum.shareit.item.dto.ItemDtoForRequest;
 import ru.practicum.shareit.item.dto.ItemDtoInput;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookingAndComments;
+import ru.practicum.shareit.item.dto.ItemVersionView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestFeed;
+import ru.practicum.shareit.request.stream.ItemRequestStreamService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+import ru.practicum.shareit.util.ETags;
+import ru.practicum.shareit.util.PageCursor;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class ItemServiceImpl implements ItemService {
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchService itemSearchService;
+    private final UserCache userCache;
+    private final CommentSummaryCache commentSummaryCache;
+    private final BookingIndexService bookingIndexService;
+    private final BookingPointerService bookingPointerService;
+    private final ItemRequestFeed itemRequestFeed;
+    private final ItemRequestStreamService itemRequestStreamService;
 
     @Override
     public List<ItemDtoWithBookingAndComments> getAll(long sharerId, int from, int size) {
         log.debug("Start request GET to /items");
-        userRepository.findById(sharerId)
-                .orElseThrow(() ->
-                        new NotFoundException("User with id = " + sharerId + " not found"));
+        userCache.checkExists(sharerId, userRepository::findById);
 
         List<Item> items = itemRepository.findAllByOwner_Id_OrderByIdAsc(sharerId,
                 PageRequest.of(from / size, size));
-        List<ItemDtoWithBookingAndComments> itemDtoWithBookingAndComments = new ArrayList<>();
-        Set<Long> itemsId = items.stream().map(Item::getId).collect(Collectors.toSet());
-        List<Comment> comments = commentRepository.findByItem_IdIn(itemsId);
-        Map<Item, List<Comment>> commentsByItem = comments.stream()
-                .collect(groupingBy(Comment::getItem, toList()));
 
-        List<Booking> lastBookings = bookingRepository.findByItem_IdInAndStartIsLessThanEqualOrderByEndDesc(itemsId, LocalDateTime.now());
-        Map<Item, List<Booking>> bookingsByItem = lastBookings.stream()
-                .collect(groupingBy(Booking::getItem, toList()));
+        return getItemsDtoWithBookingAndComments(items);
+    }
 
-        List<Booking> nextBookings = bookingRepository.findByItem_IdInAndStartAfterOrderByEndAsc(itemsId, LocalDateTime.now());
-        Map<Item, List<Booking>> bookingsByItem2 = nextBookings.stream()
-                .collect(groupingBy(Booking::getItem, toList()));
+    @Override
+    public List<ItemDtoWithBookingAndComments> getAllAfter(long sharerId, String after, int size) {
+        log.debug("Start request GET to /items?after={}", after);
+        userCache.checkExists(sharerId, userRepository::findById);
 
-        fillItemDtoWithBookingAndComments(items, itemDtoWithBookingAndComments, commentsByItem, bookingsByItem, bookingsByItem2);
+        List<Item> items = itemRepository.findAllByOwner_IdAndIdGreaterThanOrderByIdAsc(sharerId,
+                PageCursor.decode(after).getId(), PageRequest.of(0, size));
 
-        return itemDtoWithBookingAndComments;
+        return getItemsDtoWithBookingAndComments(items);
     }
 
-
     @Override
     public ItemDtoWithBookingAndComments getById(long sharerId, long id) {
         log.debug("Start request GET to /items/{}", id);
-        userRepository.findById(sharerId)
-                .orElseThrow(() ->
-                        new NotFoundException("User with id = " + sharerId + " not found"));
+        userCache.checkExists(sharerId, userRepository::findById);
         Item item = itemRepository.findById(id)
                 .orElseThrow(() ->
                         new NotFoundException("Item with id = " + id + " not found"));
@@ -86,11 +99,35 @@ public class ItemServiceImpl implements ItemService {
         return getItemDtoWithBookingAndComments(sharerId, item);
     }
 
+    @Override
+    public String getETag(long sharerId, long id) {
+        userCache.checkExists(sharerId, userRepository::findById);
+        ItemVersionView item = itemRepository.findVersionById(id)
+                .orElseThrow(() ->
+                        new NotFoundException("Item with id = " + id + " not found"));
+        CommentSummary comments = commentSummaryCache.get(id, commentRepository::findLatestByItem_IdIn);
+
+        if (item.getOwnerId() != sharerId) {
+            return ETags.of(false, item.getVersion(), comments.getVersion());
+        }
+        BookingPointer bookings = bookingPointerService.getAll(Set.of(id)).get(id);
+        return ETags.of(true, item.getVersion(), comments.getVersion(),
+                bookings.getLast() == null ? null : bookings.getLast().getId(),
+                bookings.getNext() == null ? null : bookings.getNext().getId());
+    }
+
     @Override
     public List<ItemDto> getByText(String text, int from, int size) {
         log.debug("Start request GET to /items/search?text={}", text);
-        return itemRepository.findByText(text, PageRequest.of(from / size, size))
-                .stream()
+        List<Long> ids = itemSearchService.search(text, from, size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
                 .map(ItemDtoConverter::toDto)
                 .collect(toList());
     }
@@ -112,18 +149,23 @@ public class ItemServiceImpl implements ItemService {
                             new NotFoundException("This itemRequest not be found"));
         }
 
-        Item item = ItemDtoConverter.fromDtoInput(itemDto, owner, itemRequest);
+        Item item = itemRepository.save(ItemDtoConverter.fromDtoInput(itemDto, owner, itemRequest));
+        itemSearchService.index(item);
+        if (itemRequest != null) {
+            itemRequestRepository.incrementVersion(itemRequest.getId());
+            ItemDtoForRequest itemDtoForRequest = ItemDtoConverter.toDtoForRequest(item);
+            itemRequestFeed.addItem(itemRequest.getRequestor().getId(), itemDtoForRequest);
+            itemRequestStreamService.publishItem(itemDtoForRequest);
+        }
 
-        return ItemDtoConverter.toDto(itemRepository.save(item));
+        return ItemDtoConverter.toDto(item);
     }
 
     @Override
     @Transactional
-    public ItemDto update(long sharerId, long id, ItemDto itemDto) {
+    public ItemDto update(long sharerId, long id, ItemDto itemDto, String ifMatch) {
         log.debug("Start request PATCH to /items/{}", id);
-        userRepository.findById(sharerId)
-                .orElseThrow(() ->
-                        new NotFoundException("User with id = " + sharerId + " not found"));
+        userCache.checkExists(sharerId, userRepository::findById);
         Item item = itemRepository.findById(id)
                 .orElseThrow(() ->
                         new NotFoundException("Item with id = " + id + " not found"));
@@ -131,27 +173,48 @@ public class ItemServiceImpl implements ItemService {
         if (!item.getOwner().getId().equals(sharerId)) {
             throw new NotFoundException("Item with this id not found in this user");
         }
+        if (ifMatch != null && !ETags.matches(ifMatch, getETag(sharerId, id))) {
+            throw new PreconditionFailedException("Item with id = " + id + " has been changed");
+        }
         itemDto.setId(id);
+        update(itemDto, item);
+        itemSearchService.index(item);
+        if (item.getRequest() != null) {
+            itemRequestRepository.incrementVersion(item.getRequest().getId());
+            itemRequestFeed.updateItem(item.getRequest().getRequestor().getId(),
+                    ItemDtoConverter.toDtoForRequest(item));
+        }
 
-        return ItemDtoConverter.toDto(update(itemDto, item));
+        return ItemDtoConverter.toDto(item);
     }
 
     @Override
     public void deleteById(long sharerId, long id) {
         log.debug("Start request DELETE to /items/{}", id);
-        userRepository.findById(sharerId)
-                .orElseThrow(() ->
-                        new NotFoundException("User with id = " + sharerId + " not found"));
-        itemRepository.findById(id)
+        userCache.checkExists(sharerId, userRepository::findById);
+        Item item = itemRepository.findById(id)
                 .orElseThrow(() ->
                         new NotFoundException("Item with id = " + id + " not found"));
         itemRepository.deleteById(id);
+        itemSearchService.remove(id);
+        commentSummaryCache.evict(id);
+        bookingIndexService.removeItem(id);
+        bookingPointerService.remove(id);
+        if (item.getRequest() != null) {
+            itemRequestRepository.incrementVersion(item.getRequest().getId());
+            itemRequestFeed.removeItem(item.getRequest().getRequestor().getId(), item.getRequest().getId(), id);
+        }
     }
 
     @Override
     public void deleteAll() {
         log.debug("Start request DELETE to /items)");
         itemRepository.deleteAll();
+        itemSearchService.clear();
+        commentSummaryCache.evictAll();
+        bookingIndexService.clear();
+        bookingPointerService.clear();
+        itemRequestFeed.evictAll();
     }
 
     @Override
@@ -172,8 +235,52 @@ public class ItemServiceImpl implements ItemService {
 
         Comment comment = CommentDtoConverter.fromDto(commentDto, item, author);
         commentRepository.save(comment);
+        CommentDto newComment = CommentDtoConverter.toDto(comment);
+        commentSummaryCache.add(itemId, newComment);
 
-        return CommentDtoConverter.toDto(comment);
+        return newComment;
+    }
+
+    @Override
+    public List<CommentDto> getComments(long userId, long itemId, String after, int size) {
+        log.debug("Start request GET to /items/{}/comments?after={}", itemId, after);
+        userCache.checkExists(userId, userRepository::findById);
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Item with id = " + itemId + " not found");
+        }
+
+        if (after == null) {
+            return commentRepository.findPageByItem_Id(itemId, PageRequest.of(0, size));
+        }
+        PageCursor cursor = PageCursor.decode(after);
+        return commentRepository.findPageByItem_IdAfter(itemId, cursor.getDateOrThrow(), cursor.getId(),
+                PageRequest.of(0, size));
+    }
+
+    private List<ItemDtoWithBookingAndComments> getItemsDtoWithBookingAndComments(List<Item> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> itemsId = items.stream().map(Item::getId).collect(Collectors.toSet());
+        Map<Long, CommentSummary> comments = commentSummaryCache.getAll(itemsId,
+                commentRepository::findLatestByItem_IdIn);
+
+        Map<Long, BookingPointer> bookings = bookingPointerService.getAll(itemsId);
+
+        List<ItemDtoWithBookingAndComments> itemDtoWithBookingAndComments = new ArrayList<>();
+        for (Item item : items) {
+            CommentSummary itemComments = comments.get(item.getId());
+            BookingPointer itemBookings = bookings.get(item.getId());
+            itemDtoWithBookingAndComments.add(ItemDtoConverter.toDtoWithBookingAndComments(
+                    item,
+                    toDto(itemBookings.getLast()),
+                    toDto(itemBookings.getNext()),
+                    itemComments.getLatest(),
+                    itemComments.getCount()
+            ));
+        }
+
+        return itemDtoWithBookingAndComments;
     }
 
     private Item update(ItemDto itemDto, Item item) {
@@ -193,57 +300,16 @@ public class ItemServiceImpl implements ItemService {
         BookingDtoOnlyIdAndBookerId lastBooking = null;
         BookingDtoOnlyIdAndBookerId nextBooking = null;
         if (item.getOwner().getId() == sharerId) {
-            lastBooking = bookingRepository.findFirstByItem_IdAndStartIsLessThanEqualOrderByEndAsc(item.getId(),
-                            LocalDateTime.now())
-                    .map(BookingDtoConverter::toDtoOnlyIdAndBookerId)
-                    .orElse(null);
-
-            nextBooking = bookingRepository.findFirstByItem_IdAndStartAfterOrderByEndAsc(item.getId(),
-                            LocalDateTime.now())
-                    .map(BookingDtoConverter::toDtoOnlyIdAndBookerId)
-                    .orElse(null);
-        }
-        List<CommentDto> comments = commentRepository.findByItem_Id(item.getId()).stream()
-                .map(CommentDtoConverter::toDto)
-                .collect(toList());
-        return ItemDtoConverter.toDtoWithBookingAndComments(item, lastBooking, nextBooking, comments);
+            BookingPointer bookings = bookingPointerService.getAll(Set.of(item.getId())).get(item.getId());
+            lastBooking = toDto(bookings.getLast());
+            nextBooking = toDto(bookings.getNext());
+        }
+        CommentSummary comments = commentSummaryCache.get(item.getId(), commentRepository::findLatestByItem_IdIn);
+        return ItemDtoConverter.toDtoWithBookingAndComments(item, lastBooking, nextBooking, comments.getLatest(),
+                comments.getCount());
     }
 
-    private void fillItemDtoWithBookingAndComments(List<Item> items,
-                                                   List<ItemDtoWithBookingAndComments> itemDtoWithBookingAndComments,
-                                                   Map<Item, List<Comment>> commentsByItem,
-                                                   Map<Item, List<Booking>> bookingsByItem,
-                                                   Map<Item, List<Booking>> bookingsByItem2) {
-        for (Item item : items) {
-            List<CommentDto> commentsDto = null;
-            BookingDtoOnlyIdAndBookerId lastBooking = null;
-            BookingDtoOnlyIdAndBookerId nextBooking = null;
-
-            if (commentsByItem.size() != 0) {
-                commentsDto = commentsByItem.get(item).stream()
-                        .map(CommentDtoConverter::toDto)
-                        .collect(toList());
-            }
-
-            if (bookingsByItem.get(item) != null) {
-                List<Booking> lastBookings = bookingsByItem.get(item);
-
-                if (lastBookings.size() != 0) {
-                    lastBooking = BookingDtoConverter.toDtoOnlyIdAndBookerId(lastBookings.get(0));
-                }
-            }
-
-            if (bookingsByItem2.get(item) != null) {
-                List<Booking> nextBookings = bookingsByItem2.get(item);
-
-                if (nextBookings.size() != 0) {
-                    nextBooking = BookingDtoConverter.toDtoOnlyIdAndBookerId(nextBookings.get(0));
-                }
-            }
-
-            itemDtoWithBookingAndComments.add(ItemDtoConverter.toDtoWithBookingAndComments(
-                    item, lastBooking, nextBooking, commentsDto
-            ));
-        }
+    private BookingDtoOnlyIdAndBookerId toDto(BookingInterval booking) {
+        return booking == null ? null : BookingDtoConverter.toDtoOnlyIdAndBookerId(booking);
     }
 }
@@ -1,11 +1,17 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.request.dto.ItemRequestDtoInput;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.request.stream.ItemRequestStreamService;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.List;
 
@@ -16,6 +22,7 @@ import java.util.List;
 public class ItemRequestController {
 
     private final ItemRequestService itemRequestService;
+    private final ItemRequestStreamService itemRequestStreamService;
 
     @GetMapping
     public List<ItemRequestDtoOutput> getAll(@RequestHeader("X-Sharer-User-Id") long requestorId) {
@@ -24,15 +31,30 @@ public class ItemRequestController {
 
     @GetMapping("/{requestId}")
     public ItemRequestDtoOutput getById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                        @PathVariable long requestId) {
+                                        @PathVariable long requestId,
+                                        WebRequest request) {
+        if (request.checkNotModified(itemRequestService.getETag(userId, requestId))) {
+            return null;
+        }
         return itemRequestService.getById(userId, requestId);
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDtoOutput> getAllAnotherUsers(@RequestHeader("X-Sharer-User-Id") long requestorId,
-                                                         @RequestParam(name = "from", defaultValue = "0") int from,
-                                                         @RequestParam(name = "size", defaultValue = "10") int size) {
-        return itemRequestService.getAllAnotherUsers(requestorId, from, size);
+    public ResponseEntity<List<ItemRequestDtoOutput>> getAllAnotherUsers(
+            @RequestHeader("X-Sharer-User-Id") long requestorId,
+            @RequestParam(name = "from", defaultValue = "0") int from,
+            @RequestParam(name = "size", defaultValue = "10") int size,
+            @RequestParam(name = "after", required = false) String after) {
+        List<ItemRequestDtoOutput> requests = after == null
+                ? itemRequestService.getAllAnotherUsers(requestorId, from, size)
+                : itemRequestService.getAllAnotherUsersAfter(requestorId, after, size);
+        return PageCursor.toResponse(requests, size, r -> PageCursor.encode(r.getCreated(), r.getId()));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader("X-Sharer-User-Id") long userId,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return itemRequestStreamService.subscribe(userId, lastEventId);
     }
 
     @PostMapping
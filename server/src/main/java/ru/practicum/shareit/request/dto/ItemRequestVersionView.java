@@ -0,0 +1,7 @@
+package ru.practicum.shareit.request.dto;
+
+public interface ItemRequestVersionView {
+    Long getVersion();
+
+    Long getRequestorVersion();
+}
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.VersionedEntity;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -15,11 +16,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "requests")
-public class ItemRequest {
+public class ItemRequest extends VersionedEntity {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "request_seq")
+    @SequenceGenerator(name = "request_seq", sequenceName = "request_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "description")
@@ -2,12 +2,43 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.request.dto.ItemRequestVersionView;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @Query("select r from ItemRequest as r join fetch r.requestor where r.requestor.id = ?1")
     List<ItemRequest> findByRequestor_Id(long requestorId);
 
+    @Query("select r from ItemRequest as r left join fetch r.requestor where r.requestor.id <> ?1 " +
+            "order by r.created desc, r.id desc")
     List<ItemRequest> findByRequestor_IdNot(long requestorId, Pageable pageable);
+
+    @Query("select r from ItemRequest as r left join fetch r.requestor order by r.created desc, r.id desc")
+    List<ItemRequest> findRecent(Pageable pageable);
+
+    @Query("select r from ItemRequest as r left join fetch r.requestor where r.requestor.id <> ?1 " +
+            "and (r.created < ?2 or (r.created = ?2 and r.id < ?3)) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findByRequestor_IdNotAfter(long requestorId, LocalDateTime created, long id,
+                                                 Pageable pageable);
+
+    @Query("select r.version as version, u.version as requestorVersion" +
+            " from ItemRequest as r join r.requestor as u where r.id = ?1")
+    Optional<ItemRequestVersionView> findVersionById(long id);
+
+    /**
+     * Bumps the request version when items attached to it change, so that the request ETag stays a
+     * single row lookup.
+     */
+    @Transactional
+    @Modifying
+    @Query("update ItemRequest as r set r.version = r.version + 1 where r.id = ?1")
+    int incrementVersion(long id);
 }
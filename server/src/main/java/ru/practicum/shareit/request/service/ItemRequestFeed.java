@@ -0,0 +1,286 @@
+package ru.practicum.shareit.request.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDtoForRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import static ru.practicum.shareit.util.TransactionHooks.afterCommit;
+
+/**
+ * Rendered {@link ItemRequestDtoOutput requests with their items}, kept in memory for the request lists.
+ * <p>
+ * The feed holds the newest {@code shareit.request-feed.size} requests of all users, ordered by
+ * {@code created} and {@code id} descending, and pages of {@code GET /requests/all} are cut from it. A page
+ * reaching past the feed is empty when the feed holds every request; otherwise the caller reads it from the
+ * database. Requests of one requestor are cached separately, up to {@code shareit.request-feed.maximum-size}
+ * requestors. New requests and items attached to requests are applied to both after commit instead of
+ * reloading them; everything is reloaded after {@code shareit.request-feed.ttl} or when a requestor changes.
+ */
+@Component
+public class ItemRequestFeed implements MeterBinder {
+
+    private static final Comparator<ItemRequestDtoOutput> NEWEST_FIRST =
+            Comparator.comparing(ItemRequestDtoOutput::getCreated)
+                    .thenComparing(ItemRequestDtoOutput::getId)
+                    .reversed();
+
+    private final int size;
+    private final Duration ttl;
+    private final Cache<Long, List<ItemRequestDtoOutput>> byRequestor;
+    private final Object loadLock = new Object();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private volatile Window window;
+    private List<UnaryOperator<Window>> pending;
+
+    public ItemRequestFeed(@Value("${shareit.request-feed.size}") int size,
+                           @Value("${shareit.request-feed.maximum-size}") long maximumSize,
+                           @Value("${shareit.request-feed.ttl}") Duration ttl) {
+        this.size = size;
+        this.ttl = ttl;
+        this.byRequestor = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public List<ItemRequestDtoOutput> getByRequestor(long requestorId,
+                                                     LongFunction<List<ItemRequestDtoOutput>> loader) {
+        return byRequestor.get(requestorId, id -> List.copyOf(loader.apply(id)));
+    }
+
+    /**
+     * Returns the page of {@code size} requests of other users that holds the {@code from}-th of them, as
+     * {@code PageRequest.of(from / size, size)} would, or an empty optional when the page reaches past the feed. {@code loader(limit)} returns the newest {@code limit} requests and is called
+     * when the feed isn't loaded.
+     */
+    public Optional<List<ItemRequestDtoOutput>> getRecent(long requestorId, int from, int size,
+                                                          IntFunction<List<ItemRequestDtoOutput>> loader) {
+        return page(current(loader), requestorId, request -> true, from / size * size, size);
+    }
+
+    /**
+     * Returns up to {@code size} requests of other users following the request with the given
+     * {@code created} and {@code id}, or an empty optional when they reach past the feed.
+     */
+    public Optional<List<ItemRequestDtoOutput>> getRecentAfter(long requestorId, LocalDateTime created, long id,
+                                                               int size,
+                                                               IntFunction<List<ItemRequestDtoOutput>> loader) {
+        return page(current(loader), requestorId, request -> request.getCreated().isBefore(created)
+                || request.getCreated().isEqual(created) && request.getId() < id, 0, size);
+    }
+
+    public void addRequest(ItemRequestDtoOutput request) {
+        ItemRequestDtoOutput rendered = render(request, request.getItems() == null ? List.of() : request.getItems());
+        afterCommit(() -> {
+            byRequestor.invalidate(rendered.getRequestor().getId());
+            apply(feed -> feed.with(rendered));
+        });
+    }
+
+    public void addItem(long requestorId, ItemDtoForRequest item) {
+        changeItems(requestorId, item.getRequestId(), items -> {
+            if (items.stream().anyMatch(current -> current.getId().equals(item.getId()))) {
+                return items;
+            }
+            List<ItemDtoForRequest> changed = new ArrayList<>(items);
+            changed.add(item);
+            return changed;
+        });
+    }
+
+    public void updateItem(long requestorId, ItemDtoForRequest item) {
+        changeItems(requestorId, item.getRequestId(), items -> {
+            List<ItemDtoForRequest> changed = new ArrayList<>(items);
+            changed.replaceAll(current -> current.getId().equals(item.getId()) ? item : current);
+            return changed;
+        });
+    }
+
+    public void removeItem(long requestorId, long requestId, long itemId) {
+        changeItems(requestorId, requestId, items -> {
+            List<ItemDtoForRequest> changed = new ArrayList<>(items);
+            changed.removeIf(current -> current.getId() == itemId);
+            return changed;
+        });
+    }
+
+    public void evictAll() {
+        afterCommit(() -> {
+            byRequestor.invalidateAll();
+            apply(feed -> null);
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byRequestor, "request-feed-requestors");
+        Gauge.builder("shareit.request.feed.size", this, feed -> {
+                    Window current = feed.window;
+                    return current == null ? 0 : current.requests.size();
+                })
+                .description("Requests held in the request feed")
+                .register(registry);
+        FunctionCounter.builder("shareit.request.feed.pages", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .description("Request pages served from the request feed")
+                .register(registry);
+        FunctionCounter.builder("shareit.request.feed.pages", fallbacks, AtomicLong::get)
+                .tag("result", "fallback")
+                .description("Request pages reaching past the request feed")
+                .register(registry);
+        FunctionCounter.builder("shareit.request.feed.loads", loads, AtomicLong::get)
+                .description("Loads of the request feed")
+                .register(registry);
+    }
+
+    private Window current(IntFunction<List<ItemRequestDtoOutput>> loader) {
+        Window current = window;
+        if (current != null && !current.isExpired()) {
+            return current;
+        }
+        synchronized (loadLock) {
+            current = window;
+            if (current != null && !current.isExpired()) {
+                return current;
+            }
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            List<ItemRequestDtoOutput> loaded;
+            try {
+                loaded = loader.apply(size + 1);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw e;
+            }
+            loads.incrementAndGet();
+            Window fresh = new Window(List.copyOf(loaded.subList(0, Math.min(size, loaded.size()))),
+                    loaded.size() <= size, System.nanoTime() + ttl.toNanos());
+            Window published = fresh;
+            synchronized (this) {
+                // changes committed while the loader ran may be missing from what it read, so apply them again
+                for (UnaryOperator<Window> change : pending) {
+                    published = published == null ? null : change.apply(published);
+                }
+                pending = null;
+                window = published;
+            }
+            // an evictAll during the load drops the window, but the caller can still be served what was read
+            return published != null ? published : fresh;
+        }
+    }
+
+    private Optional<List<ItemRequestDtoOutput>> page(Window feed, long requestorId,
+                                                      Predicate<ItemRequestDtoOutput> after,
+                                                      int skip, int size) {
+        List<ItemRequestDtoOutput> page = new ArrayList<>();
+        int skipped = 0;
+        for (ItemRequestDtoOutput request : feed.requests) {
+            if (request.getRequestor().getId() == requestorId || !after.test(request)) {
+                continue;
+            }
+            if (skipped < skip) {
+                skipped++;
+                continue;
+            }
+            page.add(request);
+            if (page.size() == size) {
+                break;
+            }
+        }
+        if (page.size() < size && !feed.complete) {
+            fallbacks.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(page);
+    }
+
+    private void changeItems(long requestorId, long requestId,
+                             UnaryOperator<List<ItemDtoForRequest>> change) {
+        afterCommit(() -> {
+            byRequestor.asMap().computeIfPresent(requestorId,
+                    (id, requests) -> changeItems(requests, requestId, change));
+            apply(feed -> new Window(changeItems(feed.requests, requestId, change), feed.complete, feed.expiresAt));
+        });
+    }
+
+    private synchronized void apply(UnaryOperator<Window> change) {
+        if (pending != null) {
+            pending.add(change);
+        }
+        if (window != null) {
+            window = change.apply(window);
+        }
+    }
+
+    private static List<ItemRequestDtoOutput> changeItems(List<ItemRequestDtoOutput> requests, long requestId,
+                                                          UnaryOperator<List<ItemDtoForRequest>> change) {
+        for (int i = 0; i < requests.size(); i++) {
+            ItemRequestDtoOutput request = requests.get(i);
+            if (request.getId() == requestId) {
+                List<ItemRequestDtoOutput> changed = new ArrayList<>(requests);
+                changed.set(i, render(request, change.apply(request.getItems())));
+                return List.copyOf(changed);
+            }
+        }
+        return requests;
+    }
+
+    private static ItemRequestDtoOutput render(ItemRequestDtoOutput request, List<ItemDtoForRequest> items) {
+        return new ItemRequestDtoOutput(request.getId(), request.getDescription(), request.getRequestor(),
+                request.getCreated(), List.copyOf(items));
+    }
+
+    private class Window {
+        private final List<ItemRequestDtoOutput> requests;
+        private final boolean complete;
+        private final long expiresAt;
+
+        private Window(List<ItemRequestDtoOutput> requests, boolean complete, long expiresAt) {
+            this.requests = requests;
+            this.complete = complete;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+
+        private Window with(ItemRequestDtoOutput request) {
+            int index = Collections.binarySearch(requests, request, NEWEST_FIRST);
+            if (index >= 0 || -index - 1 == requests.size() && !complete) {
+                return this;
+            }
+            List<ItemRequestDtoOutput> changed = new ArrayList<>(requests);
+            changed.add(-index - 1, request);
+            if (changed.size() > size) {
+                changed.remove(changed.size() - 1);
+                return new Window(List.copyOf(changed), false, expiresAt);
+            }
+            return new Window(List.copyOf(changed), complete, expiresAt);
+        }
+    }
+}
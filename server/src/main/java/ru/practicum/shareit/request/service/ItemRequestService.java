@@ -10,7 +10,11 @@ public interface ItemRequestService {
 
     ItemRequestDtoOutput getById(long userId, long requestId);
 
+    String getETag(long userId, long requestId);
+
     List<ItemRequestDtoOutput> getAllAnotherUsers(long requestorId, int from, int size);
 
+    List<ItemRequestDtoOutput> getAllAnotherUsersAfter(long requestorId, String after, int size);
+
     ItemRequestDtoOutput create(long requestorId, ItemRequestDtoInput itemRequest);
 }
@@ -3,7 +3,6 @@ package ru.practicum.shareit.request.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDtoConverter;
@@ -13,14 +12,20 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDtoConverter;
 import ru.practicum.shareit.request.dto.ItemRequestDtoInput;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
+import ru.practicum.shareit.request.dto.ItemRequestVersionView;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.stream.ItemRequestStreamService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+import ru.practicum.shareit.util.ETags;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.groupingBy;
@@ -34,24 +39,23 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final UserCache userCache;
+    private final ItemRequestFeed itemRequestFeed;
+    private final ItemRequestStreamService itemRequestStreamService;
 
     @Override
     public List<ItemRequestDtoOutput> getAll(long requestorId) {
         log.debug("Start request GET to /requests");
-        userRepository.findById(requestorId)
-                .orElseThrow(() ->
-                        new NotFoundException("User with id = " + requestorId + " not found"));
-        List<ItemRequest> requests = itemRequestRepository.findByRequestor_Id(requestorId);
+        userCache.checkExists(requestorId, userRepository::findById);
 
-        return getItemRequestsDtoWithItemsFromRequests(requests);
+        return itemRequestFeed.getByRequestor(requestorId, id ->
+                getItemRequestsDtoWithItemsFromRequests(itemRequestRepository.findByRequestor_Id(id)));
     }
 
     @Override
     public ItemRequestDtoOutput getById(long userId, long requestId) {
         log.debug("Start request GET to /requests/{}", requestId);
-        userRepository.findById(userId)
-                .orElseThrow(() ->
-                        new NotFoundException("User with id = " + userId + " not found"));
+        userCache.checkExists(userId, userRepository::findById);
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
                 .orElseThrow(() ->
                         new NotFoundException("Request with id = " + userId + " not found"));
@@ -61,12 +65,41 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return ItemRequestDtoConverter.toDtoOutput(itemRequest, ItemDtoConverter.toDtoListForRequest(items));
     }
 
+    @Override
+    public String getETag(long userId, long requestId) {
+        userCache.checkExists(userId, userRepository::findById);
+        ItemRequestVersionView itemRequest = itemRequestRepository.findVersionById(requestId)
+                .orElseThrow(() ->
+                        new NotFoundException("Request with id = " + requestId + " not found"));
+
+        return ETags.of(itemRequest.getVersion(), itemRequest.getRequestorVersion());
+    }
+
     @Override
     public List<ItemRequestDtoOutput> getAllAnotherUsers(long requestorId, int from, int size) {
         log.debug("Start request GET to /requests/all");
+        Optional<List<ItemRequestDtoOutput>> recent = itemRequestFeed.getRecent(requestorId, from, size,
+                this::getRecent);
+        if (recent.isPresent()) {
+            return recent.get();
+        }
         List<ItemRequest> requests = itemRequestRepository.findByRequestor_IdNot(requestorId,
-                PageRequest.of(from / size, size,
-                        Sort.by(Sort.Direction.DESC, "created")));
+                PageRequest.of(from / size, size));
+
+        return getItemRequestsDtoWithItemsFromRequests(requests);
+    }
+
+    @Override
+    public List<ItemRequestDtoOutput> getAllAnotherUsersAfter(long requestorId, String after, int size) {
+        log.debug("Start request GET to /requests/all?after={}", after);
+        PageCursor cursor = PageCursor.decode(after);
+        Optional<List<ItemRequestDtoOutput>> recent = itemRequestFeed.getRecentAfter(requestorId,
+                cursor.getDateOrThrow(), cursor.getId(), size, this::getRecent);
+        if (recent.isPresent()) {
+            return recent.get();
+        }
+        List<ItemRequest> requests = itemRequestRepository.findByRequestor_IdNotAfter(requestorId,
+                cursor.getDateOrThrow(), cursor.getId(), PageRequest.of(0, size));
 
         return getItemRequestsDtoWithItemsFromRequests(requests);
     }
@@ -80,8 +113,15 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
         ItemRequest itemRequest = ItemRequestDtoConverter.fromDtoInput(itemRequestDtoInput, owner);
         itemRequestRepository.save(itemRequest);
+        ItemRequestDtoOutput itemRequestDtoOutput = ItemRequestDtoConverter.toDtoOutput(itemRequest, null);
+        itemRequestFeed.addRequest(itemRequestDtoOutput);
+        itemRequestStreamService.publishRequest(itemRequestDtoOutput);
+
+        return itemRequestDtoOutput;
+    }
 
-        return ItemRequestDtoConverter.toDtoOutput(itemRequest, null);
+    private List<ItemRequestDtoOutput> getRecent(int limit) {
+        return getItemRequestsDtoWithItemsFromRequests(itemRequestRepository.findRecent(PageRequest.of(0, limit)));
     }
 
     private List<ItemRequestDtoOutput> getItemRequestsDtoWithItemsFromRequests(List<ItemRequest> requests) {
@@ -89,12 +129,12 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .map(ItemRequest::getId)
                 .collect(Collectors.toList());
         List<Item> items = itemRepository.findByRequest_IdIn(requestsId);
-        Map<ItemRequest, List<Item>> itemRequestsByItem = items.stream()
-                .collect(groupingBy(Item::getRequest, toList()));
+        Map<Long, List<Item>> itemRequestsByItem = items.stream()
+                .collect(groupingBy(item -> item.getRequest().getId(), toList()));
         List<ItemRequestDtoOutput> itemRequestDtoOutputs = new ArrayList<>();
 
         for (ItemRequest itemRequest : requests) {
-            List<Item> itemsTemp = itemRequestsByItem.getOrDefault(itemRequest, new ArrayList<>());
+            List<Item> itemsTemp = itemRequestsByItem.getOrDefault(itemRequest.getId(), new ArrayList<>());
             List<ItemDtoForRequest> itemDtoForRequests = itemsTemp.stream()
                     .map(ItemDtoConverter::toDtoForRequest)
                     .collect(toList());
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.request.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.item.dto.ItemDtoForRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
+
+public interface ItemRequestStreamService {
+    SseEmitter subscribe(long userId, Long lastEventId);
+
+    void publishRequest(ItemRequestDtoOutput itemRequest);
+
+    void publishItem(ItemDtoForRequest item);
+}
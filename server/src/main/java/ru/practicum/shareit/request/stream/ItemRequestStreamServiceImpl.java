@@ -0,0 +1,269 @@
+package ru.practicum.shareit.request.stream;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.item.dto.ItemDtoForRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ru.practicum.shareit.util.TransactionHooks.afterCommit;
+
+/**
+ * Pushes new requests and items attached to requests to subscribers of {@code GET /requests/stream} as
+ * server-sent events, so that clients don't have to poll {@code GET /requests/all}. A {@code request} event
+ * goes to everyone but the requestor, an {@code item} event to everyone.
+ * <p>
+ * Connections are held by the servlet container in async mode and events are written by a pool of
+ * {@code shareit.request-stream.senders} threads, so an idle subscriber costs a socket and a queue, not a
+ * thread. Each subscriber has a queue of {@code shareit.request-stream.buffer-size} events; a subscriber that
+ * falls further behind is disconnected and resumes with its {@code Last-Event-ID}. The last
+ * {@code shareit.request-stream.replay-size} events are kept for that; a subscriber that missed more gets a
+ * {@code reset} event and should reload {@code GET /requests/all}. A comment is sent to idle subscribers
+ * every {@code shareit.request-stream.heartbeat} to keep proxies from closing the connection.
+ */
+@Slf4j
+@Service
+public class ItemRequestStreamServiceImpl implements ItemRequestStreamService {
+
+    private static final String REQUEST_EVENT = "request";
+    private static final String ITEM_EVENT = "item";
+    private static final String RESET_EVENT = "reset";
+
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final int bufferSize;
+    private final int replaySize;
+    private final int senders;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Deque<Event> replay = new ArrayDeque<>();
+    private final AtomicLong overflows = new AtomicLong();
+    // event ids keep growing across restarts, so an id from a previous run is never taken for a new one
+    private long lastEventId = System.currentTimeMillis() * 1000;
+    private ExecutorService senderPool;
+    private ScheduledExecutorService scheduler;
+
+    public ItemRequestStreamServiceImpl(UserRepository userRepository,
+                                        UserCache userCache,
+                                        MeterRegistry registry,
+                                        @Value("${shareit.request-stream.buffer-size}") int bufferSize,
+                                        @Value("${shareit.request-stream.replay-size}") int replaySize,
+                                        @Value("${shareit.request-stream.senders}") int senders,
+                                        @Value("${shareit.request-stream.heartbeat}") Duration heartbeat,
+                                        @Value("${shareit.request-stream.timeout}") Duration timeout) {
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.senders = senders;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+        Gauge.builder("shareit.request.stream.subscribers", subscribers, Set::size)
+                .description("Open subscriptions to new requests")
+                .register(registry);
+        FunctionCounter.builder("shareit.request.stream.overflows", overflows, AtomicLong::get)
+                .description("Subscribers disconnected for falling behind the request stream")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        senderPool = Executors.newFixedThreadPool(senders, runnable -> {
+            Thread thread = new Thread(runnable, "request-stream-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "request-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> subscribers.forEach(Subscriber::ping),
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        senderPool.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    @Override
+    public SseEmitter subscribe(long userId, Long lastEventId) {
+        log.debug("Start request GET to /requests/stream, lastEventId = {}", lastEventId);
+        userCache.checkExists(userId, userRepository::findById);
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        subscribe(userId, lastEventId, emitter);
+        return emitter;
+    }
+
+    @Override
+    public void publishRequest(ItemRequestDtoOutput itemRequest) {
+        afterCommit(() -> publish(REQUEST_EVENT, itemRequest.getRequestor().getId(), itemRequest));
+    }
+
+    @Override
+    public void publishItem(ItemDtoForRequest item) {
+        afterCommit(() -> publish(ITEM_EVENT, null, item));
+    }
+
+    void subscribe(long userId, Long lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        synchronized (replay) {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+    }
+
+    private void publish(String name, Long requestorId, Object data) {
+        synchronized (replay) {
+            Event event = new Event(++lastEventId, name, requestorId, data);
+            replay.addLast(event);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (event.isVisibleTo(subscriber.userId)) {
+                    subscriber.offer(event.toSse());
+                }
+            }
+        }
+    }
+
+    private void replay(Subscriber subscriber, long lastEventId) {
+        long firstEventId = replay.isEmpty() ? this.lastEventId + 1 : replay.getFirst().id;
+        List<Event> missed = new ArrayList<>();
+        for (Event event : replay) {
+            if (event.id > lastEventId && event.isVisibleTo(subscriber.userId)) {
+                missed.add(event);
+            }
+        }
+        if (lastEventId < firstEventId - 1 || lastEventId > this.lastEventId || missed.size() > bufferSize) {
+            subscriber.offer(SseEmitter.event().id(String.valueOf(this.lastEventId)).name(RESET_EVENT).data(""));
+            return;
+        }
+        missed.forEach(event -> subscriber.offer(event.toSse()));
+    }
+
+    private static class Event {
+        private final long id;
+        private final String name;
+        private final Long requestorId;
+        private final Object data;
+
+        private Event(long id, String name, Long requestorId, Object data) {
+            this.id = id;
+            this.name = name;
+            this.requestorId = requestorId;
+            this.data = data;
+        }
+
+        private boolean isVisibleTo(long userId) {
+            return requestorId == null || requestorId != userId;
+        }
+
+        private SseEmitter.SseEventBuilder toSse() {
+            return SseEmitter.event().id(String.valueOf(id)).name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private class Subscriber {
+        private final long userId;
+        private final SseEmitter emitter;
+        private final Deque<SseEmitter.SseEventBuilder> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closing;
+
+        private Subscriber(long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            synchronized (this) {
+                if (closing) {
+                    return;
+                }
+                if (queue.size() < bufferSize) {
+                    queue.addLast(event);
+                } else {
+                    queue.clear();
+                    closing = true;
+                    overflows.incrementAndGet();
+                    log.debug("Subscriber {} fell behind the request stream", userId);
+                }
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            senderPool.execute(this::drain);
+        }
+
+        private void ping() {
+            synchronized (this) {
+                if (draining || closing) {
+                    return;
+                }
+            }
+            offer(SseEmitter.event().comment("ping"));
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    event = queue.pollFirst();
+                    if (event == null) {
+                        draining = false;
+                        if (!closing) {
+                            return;
+                        }
+                    }
+                }
+                if (event == null) {
+                    subscribers.remove(this);
+                    emitter.complete();
+                    return;
+                }
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    synchronized (this) {
+                        queue.clear();
+                        closing = true;
+                        draining = false;
+                    }
+                    subscribers.remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
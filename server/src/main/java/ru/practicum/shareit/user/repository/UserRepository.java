@@ -1,8 +1,13 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Optional;
+
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    @Query("select u.version from User as u where u.id = ?1")
+    Optional<Long> findVersionById(long id);
 }
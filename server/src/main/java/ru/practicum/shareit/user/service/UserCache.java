@@ -0,0 +1,60 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static ru.practicum.shareit.util.TransactionHooks.afterCommit;
+
+/**
+ * Bounded cache of ids of existing users, so that services can check the caller without a query.
+ * Only hits are cached; a missing user is looked up again on every call.
+ * Hit and miss counts are published as the {@code cache.*} metrics tagged {@code cache=users}.
+ */
+@Component
+public class UserCache implements MeterBinder {
+
+    private final Cache<Long, Boolean> existingUsers;
+
+    public UserCache(@Value("${shareit.user-cache.maximum-size}") long maximumSize,
+                     @Value("${shareit.user-cache.ttl}") Duration ttl) {
+        this.existingUsers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public void checkExists(long userId, Function<Long, Optional<User>> loader) {
+        if (existingUsers.getIfPresent(userId) != null) {
+            return;
+        }
+        loader.apply(userId)
+                .orElseThrow(() ->
+                        new NotFoundException("User with id = " + userId + " not found"));
+        existingUsers.put(userId, Boolean.TRUE);
+    }
+
+    public void evict(long userId) {
+        afterCommit(() -> existingUsers.invalidate(userId));
+    }
+
+    public void evictAll() {
+        afterCommit(existingUsers::invalidateAll);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, existingUsers, "users");
+    }
+}
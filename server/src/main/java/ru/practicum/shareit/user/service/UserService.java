@@ -9,6 +9,8 @@ public interface UserService {
 
     UserDto getById(long id);
 
+    String getETag(long id);
+
     UserDto create(UserDto userDto);
 
     UserDto update(long id, UserDto userDto);
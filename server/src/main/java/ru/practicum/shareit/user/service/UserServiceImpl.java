@@ -4,11 +4,16 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.index.BookingIndexService;
+import ru.practicum.shareit.booking.index.BookingPointerService;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.comment.CommentSummaryCache;
+import ru.practicum.shareit.request.service.ItemRequestFeed;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoConverter;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.ETags;
 
 import javax.transaction.Transactional;
 import java.util.List;
@@ -20,6 +25,11 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final CommentSummaryCache commentSummaryCache;
+    private final ItemRequestFeed itemRequestFeed;
+    private final BookingIndexService bookingIndexService;
+    private final BookingPointerService bookingPointerService;
 
     @Override
     public List<UserDto> getAll() {
@@ -40,6 +50,14 @@ public class UserServiceImpl implements UserService {
         return UserDtoConverter.toDto(user);
     }
 
+    @Override
+    public String getETag(long id) {
+        return userRepository.findVersionById(id)
+                .map(ETags::of)
+                .orElseThrow(() ->
+                        new NotFoundException("User with id = " + id + " not found"));
+    }
+
     @Override
     public UserDto create(UserDto userDto) {
         log.debug("Start request POST to /users, with id = {}, name = {}, email = {}",
@@ -56,6 +74,11 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() ->
                 new NotFoundException("User with id = " + id + " not found"));
         userDto.setId(id);
+        userCache.evict(id);
+        if (userDto.getName() != null && !userDto.getName().equals(user.getName())) {
+            commentSummaryCache.evictAll();
+            itemRequestFeed.evictAll();
+        }
         return UserDtoConverter.toDto(update(userDto, user));
     }
 
@@ -64,12 +87,18 @@ public class UserServiceImpl implements UserService {
     public void deleteById(long id) {
         log.debug("Start request DELETE to /users/{}", id);
         userRepository.deleteById(id);
+        userCache.evict(id);
     }
 
     @Override
     public void deleteAll() {
         log.debug("Start request DELETE to /users)");
         userRepository.deleteAll();
+        userCache.evictAll();
+        commentSummaryCache.evictAll();
+        itemRequestFeed.evictAll();
+        bookingIndexService.clear();
+        bookingPointerService.clear();
     }
 
     private User update(UserDto userDto, User user) {
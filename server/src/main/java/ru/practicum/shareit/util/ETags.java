@@ -0,0 +1,30 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+public class ETags {
+
+    /**
+     * Builds a strong ETag from the values a representation is rendered from.
+     */
+    public static String of(Object... parts) {
+        String source = Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining(":"));
+        return "\"" + DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Checks an {@code If-Match} header against the current ETag. Weak tags never match.
+     */
+    public static boolean matches(String ifMatch, String etag) {
+        return Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> tag.equals("*") || Objects.equals(tag, etag));
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.classify.BinaryExceptionClassifier;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.listener.RetryListenerSupport;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs an action in a transaction and runs it again in a new one, after a short random pause,
+ * when the commit loses a version check to a concurrent update. The last conflict is rethrown.
+ * Retried conflicts are published as the {@code shareit.optimistic.retries} metric.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry implements MeterBinder {
+
+    private static final BinaryExceptionClassifier CONFLICTS = BinaryExceptionClassifier.builder()
+            .retryOn(OptimisticLockingFailureException.class)
+            .traversingCauses()
+            .build();
+
+    private final TransactionTemplate transactionTemplate;
+    private final RetryTemplate retryTemplate;
+    private final AtomicLong retries = new AtomicLong();
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           @Value("${shareit.optimistic-retry.max-attempts}") int maxAttempts,
+                           @Value("${shareit.optimistic-retry.min-backoff}") Duration minBackoff,
+                           @Value("${shareit.optimistic-retry.max-backoff}") Duration maxBackoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retryTemplate = RetryTemplate.builder()
+                .maxAttempts(maxAttempts)
+                .uniformRandomBackoff(minBackoff.toMillis(), maxBackoff.toMillis())
+                .retryOn(OptimisticLockingFailureException.class)
+                .traversingCauses()
+                .withListener(new RetryListenerSupport() {
+                    @Override
+                    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                                 Throwable throwable) {
+                        if (!CONFLICTS.classify(throwable)) {
+                            return;
+                        }
+                        retries.incrementAndGet();
+                        log.debug("Optimistic lock conflict, attempt {}: {}", context.getRetryCount(),
+                                throwable.getMessage());
+                    }
+                })
+                .build();
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        return retryTemplate.execute(context -> transactionTemplate.execute(status -> action.get()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("shareit.optimistic.retries", retries, AtomicLong::get)
+                .description("Transactions repeated after losing an optimistic version check")
+                .register(registry);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.util;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ValidateException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset pagination token: the sort key of the last returned row, either {@code (date, id)} or {@code id}.
+ * The token of the next page is sent back in the {@value #HEADER} response header.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class PageCursor {
+
+    public static final String HEADER = "X-Next-Cursor";
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime date;
+    private final long id;
+
+    public static String encode(LocalDateTime date, long id) {
+        return encode(date + SEPARATOR + id);
+    }
+
+    public static String encode(long id) {
+        return encode(SEPARATOR + id);
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            LocalDateTime date = separator == 0 ? null : LocalDateTime.parse(value.substring(0, separator));
+            return new PageCursor(date, Long.parseLong(value.substring(separator + 1)));
+        } catch (java.lang.IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidateException("Invalid cursor: " + token);
+        }
+    }
+
+    public LocalDateTime getDateOrThrow() {
+        if (date == null) {
+            throw new ValidateException("Cursor has no date component");
+        }
+        return date;
+    }
+
+    public static <T> ResponseEntity<List<T>> toResponse(List<T> page, int size, Function<T, String> cursorOf) {
+        if (page.isEmpty() || page.size() < size) {
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.ok()
+                .header(HEADER, cursorOf.apply(page.get(page.size() - 1)))
+                .body(page);
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.exception.ServerException;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts the SQL statements Hibernate prepares while a request is handled and publishes them as the
+ * {@code shareit.http.sql.statements} distribution tagged by method and mapped uri. The count is also left
+ * in the {@link #STATEMENTS_ATTRIBUTE} request attribute.
+ * <p>
+ * A request over {@code shareit.sql.statement-budget} is logged; with {@code shareit.sql.fail-over-budget}
+ * the statement that crosses the budget fails instead, so tests catch a new N+1 query.
+ * <p>
+ * An async request, like a server-sent event stream, is counted until its handler returns; statements
+ * run later on other threads are not counted.
+ */
+@Slf4j
+@Component
+public class SqlStatementCounter implements StatementInspector, AsyncHandlerInterceptor,
+        HibernatePropertiesCustomizer, MeterBinder {
+
+    public static final String STATEMENTS_ATTRIBUTE = SqlStatementCounter.class.getName() + ".statements";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final int budget;
+    private final boolean failOverBudget;
+    private final ThreadLocal<RequestCount> current = new ThreadLocal<>();
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    public SqlStatementCounter(@Value("${shareit.sql.statement-budget}") int budget,
+                               @Value("${shareit.sql.fail-over-budget}") boolean failOverBudget) {
+        this.budget = budget;
+        this.failOverBudget = failOverBudget;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestCount count = current.get();
+        if (count != null && ++count.statements > budget && budget > 0 && failOverBudget) {
+            throw new ServerException(count.endpoint + " exceeded the budget of " + budget + " SQL statements");
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        current.set(new RequestCount(request.getMethod() + " " + uri(request)));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        record(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        record(request);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    private void record(HttpServletRequest request) {
+        RequestCount count = current.get();
+        current.remove();
+        if (count == null) {
+            return;
+        }
+        request.setAttribute(STATEMENTS_ATTRIBUTE, count.statements);
+        if (budget > 0 && count.statements > budget) {
+            log.warn("{} ran {} SQL statements, the budget is {}", count.endpoint, count.statements, budget);
+        }
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry != null) {
+            summaries.computeIfAbsent(count.endpoint, endpoint -> DistributionSummary
+                            .builder("shareit.http.sql.statements")
+                            .description("SQL statements run while handling a request")
+                            .baseUnit("statements")
+                            .tag("method", request.getMethod())
+                            .tag("uri", uri(request))
+                            .publishPercentileHistogram()
+                            .minimumExpectedValue(1.0)
+                            .maximumExpectedValue(1000.0)
+                            .register(meterRegistry))
+                    .record(count.statements);
+        }
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? UNKNOWN_URI : pattern.toString();
+    }
+
+    private static class RequestCount {
+        private final String endpoint;
+        private int statements;
+
+        private RequestCount(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel. Level 0 has {@code wheelSize} slots of one tick; every next level has as many
+ * slots, each as long as a whole turn of the level below. A timer goes to the lowest level whose turn
+ * reaches its deadline, and when a slot of an upper level comes due its timers are cascaded down, so
+ * scheduling and expiring cost O(1) per timer however far the deadline is. Stretches without timers are
+ * skipped. Times are epoch milliseconds; the owner drives the wheel by calling {@link #advance(long)}
+ * about once a tick.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<Level<T>> levels = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, int wheelSize, long nowMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("Tick must be positive and wheel size at least 2");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+        levels.add(new Level<>(1, wheelSize));
+    }
+
+    /**
+     * Schedules {@code task} to expire on the first {@link #advance} at or after {@code deadlineMillis}.
+     * A deadline in the past expires on the next advance.
+     */
+    public synchronized void schedule(T task, long deadlineMillis) {
+        long tick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        insert(new Timer<>(task, tick));
+        size++;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis} and returns the tasks whose deadline has passed.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            int lowest = lowestBusyLevel();
+            if (lowest < 0) {
+                currentTick = targetTick;
+                break;
+            }
+            if (lowest > 0) {
+                // nothing expires or cascades before the next slot of the lowest busy level
+                long unit = levels.get(lowest).unit;
+                long nextSlotTick = Math.floorDiv(currentTick, unit) * unit + unit;
+                if (nextSlotTick > targetTick) {
+                    currentTick = targetTick;
+                    break;
+                }
+                currentTick = nextSlotTick - 1;
+            }
+            currentTick++;
+            for (int i = levels.size() - 1; i > 0; i--) {
+                Level<T> level = levels.get(i);
+                if (currentTick % level.unit == 0) {
+                    for (Timer<T> timer : level.take(currentTick)) {
+                        if (timer.tick == currentTick) {
+                            expire(timer, expired);
+                        } else {
+                            insert(timer);
+                        }
+                    }
+                }
+            }
+            for (Timer<T> timer : levels.get(0).take(currentTick)) {
+                expire(timer, expired);
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void insert(Timer<T> timer) {
+        for (int i = 0; ; i++) {
+            if (i == levels.size()) {
+                levels.add(new Level<>(levels.get(i - 1).unit * wheelSize, wheelSize));
+            }
+            Level<T> level = levels.get(i);
+            if (Math.floorDiv(timer.tick, level.unit) - Math.floorDiv(currentTick, level.unit) < wheelSize) {
+                level.add(timer);
+                return;
+            }
+        }
+    }
+
+    private void expire(Timer<T> timer, List<T> expired) {
+        expired.add(timer.task);
+        size--;
+    }
+
+    private int lowestBusyLevel() {
+        for (int i = 0; i < levels.size(); i++) {
+            if (levels.get(i).size > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+
+    private static class Level<T> {
+        private final long unit;
+        private final Deque<Timer<T>>[] slots;
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        private Level(long unit, int wheelSize) {
+            this.unit = unit;
+            this.slots = new Deque[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                slots[i] = new ArrayDeque<>();
+            }
+        }
+
+        private void add(Timer<T> timer) {
+            slots[slot(timer.tick)].add(timer);
+            size++;
+        }
+
+        private List<Timer<T>> take(long tick) {
+            Deque<Timer<T>> slot = slots[slot(tick)];
+            if (slot.isEmpty()) {
+                return List.of();
+            }
+            List<Timer<T>> timers = new ArrayList<>(slot);
+            slot.clear();
+            size -= timers.size();
+            return timers;
+        }
+
+        private int slot(long tick) {
+            return (int) Math.floorMod(Math.floorDiv(tick, unit), (long) slots.length);
+        }
+    }
+
+    private static class Timer<T> {
+        private final T task;
+        private final long tick;
+
+        private Timer(T task, long tick) {
+            this.task = task;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.util;
+
+import lombok.Getter;
+
+import javax.persistence.Column;
+import javax.persistence.MappedSuperclass;
+import javax.persistence.Version;
+
+/**
+ * Entity with a version column, incremented by Hibernate on every update.
+ * Updates of a stale copy fail, and the version is a part of the entity's ETag.
+ */
+@Getter
+@MappedSuperclass
+public abstract class VersionedEntity {
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+}
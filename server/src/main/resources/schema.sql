@@ -1,51 +1,79 @@
 DROP TABLE IF EXISTS users, requests, items, bookings, comments;
+DROP SEQUENCE IF EXISTS user_seq;
+DROP SEQUENCE IF EXISTS request_seq;
+DROP SEQUENCE IF EXISTS item_seq;
+DROP SEQUENCE IF EXISTS booking_seq;
+DROP SEQUENCE IF EXISTS comment_seq;
+
+CREATE SEQUENCE user_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE request_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE item_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE booking_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE comment_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE users
 (
-    id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id    BIGINT DEFAULT nextval('user_seq')      NOT NULL,
     name  VARCHAR(255)                            NOT NULL,
     email VARCHAR(512)                            NOT NULL,
+    version BIGINT DEFAULT 0                      NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (id),
     CONSTRAINT UNIQUE_USER_EMAIL UNIQUE (email)
 );
 
 CREATE TABLE requests
 (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id           BIGINT DEFAULT nextval('request_seq')   NOT NULL,
     description  VARCHAR                                 NOT NULL,
     requestor_id BIGINT REFERENCES users (id),
     created TIMESTAMP WITHOUT TIME ZONE,
+    version      BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_request PRIMARY KEY (id)
 );
 
 CREATE TABLE items
 (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id           BIGINT DEFAULT nextval('item_seq')      NOT NULL,
     name         VARCHAR(255)                            NOT NULL,
     description  VARCHAR                                 NOT NULL,
     is_available BOOLEAN                                 NOT NULL,
     owner_id     BIGINT REFERENCES users (id),
     request_id   BIGINT REFERENCES requests (id),
+    version      BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_item PRIMARY KEY (id)
 );
 
 CREATE TABLE bookings
 (
-    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id         BIGINT DEFAULT nextval('booking_seq')   NOT NULL,
     start_date TIMESTAMP WITHOUT TIME ZONE,
     end_date   TIMESTAMP WITHOUT TIME ZONE,
     item_id    BIGINT REFERENCES items (id),
     booker_id  BIGINT REFERENCES users (id),
     status     VARCHAR                                 NOT NULL,
+    phase      VARCHAR DEFAULT 'UPCOMING'              NOT NULL,
+    version    BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_booking PRIMARY KEY (id)
 );
 
 CREATE TABLE comments
 (
-    id        BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id        BIGINT DEFAULT nextval('comment_seq')   NOT NULL,
     text      VARCHAR                                 NOT NULL,
     item_id   BIGINT REFERENCES items (id),
     author_id BIGINT REFERENCES users (id),
     created TIMESTAMP WITHOUT TIME ZONE,
     CONSTRAINT pk_comment PRIMARY KEY (id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX idx_bookings_item_start ON bookings (item_id, start_date, end_date);
+CREATE INDEX idx_bookings_item_status_start ON bookings (item_id, status, start_date, end_date, booker_id);
+CREATE INDEX idx_bookings_booker_phase_start ON bookings (booker_id, phase, start_date DESC, id DESC);
+CREATE INDEX idx_bookings_phase_start ON bookings (phase, start_date);
+CREATE INDEX idx_bookings_phase_end ON bookings (phase, end_date);
+CREATE INDEX idx_items_owner ON items (owner_id, id);
+CREATE INDEX idx_items_request ON items (request_id, id);
+CREATE INDEX idx_comments_item ON comments (item_id, created DESC, id DESC);
+CREATE INDEX idx_requests_requestor_created ON requests (requestor_id, created DESC, id DESC);
+CREATE INDEX idx_requests_created ON requests (created DESC, id DESC);
\ No newline at end of file
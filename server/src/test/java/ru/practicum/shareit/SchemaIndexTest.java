@@ -0,0 +1,260 @@
+package ru.practicum.shareit;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Phase;
+import ru.practicum.shareit.booking.Role;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds a few thousand rows and checks with {@code EXPLAIN} that the hot repository queries look rows up
+ * by index instead of scanning a table. Each repository method is called once and every statement
+ * Hibernate prepares for it is explained as generated, with its parameters left unbound. The data is
+ * seeded once and committed, since {@code ANALYZE} commits the open transaction anyway, and each call
+ * then runs in a transaction of its own, as it would from a service, that is rolled back afterwards.
+ * <p>
+ * H2 indexes every foreign key column on its own and may prefer that index to a composite one from
+ * {@code schema.sql}, so a lookup only asserts the table and the leading column of the index used.
+ */
+@DataJpaTest
+@Import(SchemaIndexTest.StatementRecorder.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SchemaIndexTest {
+
+    private static final int USERS = 50;
+    private static final int REQUESTS = 200;
+    private static final int ITEMS = 500;
+    private static final int BOOKINGS = 5000;
+    private static final int COMMENTS = 2000;
+    private static final LocalDateTime NOW = LocalDateTime.of(2022, 9, 1, 12, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private StatementRecorder statementRecorder;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @BeforeAll
+    void seed() {
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++) {
+            users.add(new Object[]{id, "User " + id, "user" + id + "@yandex.ru"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users);
+
+        List<Object[]> requests = new ArrayList<>();
+        for (long id = 1; id <= REQUESTS; id++) {
+            requests.add(new Object[]{id, "Need a drill " + id, id % USERS + 1, Timestamp.valueOf(NOW.minusHours(id))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO requests (id, description, requestor_id, created) VALUES (?, ?, ?, ?)",
+                requests);
+
+        List<Object[]> items = new ArrayList<>();
+        for (long id = 1; id <= ITEMS; id++) {
+            items.add(new Object[]{id, "Drill " + id, "Cordless drill " + id, id % USERS + 1,
+                    id % 5 == 0 ? id % REQUESTS + 1 : null});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, is_available, owner_id, request_id) " +
+                "VALUES (?, ?, ?, true, ?, ?)", items);
+
+        List<Object[]> bookings = new ArrayList<>();
+        for (long id = 1; id <= BOOKINGS; id++) {
+            LocalDateTime start = NOW.plusDays(id % 60 - 30);
+            bookings.add(new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)),
+                    id % ITEMS + 1, (id + 7) % USERS + 1, id % 3 == 0 ? "APPROVED" : "WAITING",
+                    Phase.at(start, start.plusDays(1), NOW).name()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, phase) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", bookings);
+
+        List<Object[]> comments = new ArrayList<>();
+        for (long id = 1; id <= COMMENTS; id++) {
+            comments.add(new Object[]{id, "Works fine " + id, id % ITEMS + 1, (id + 3) % USERS + 1,
+                    Timestamp.valueOf(NOW.minusMinutes(id))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO comments (id, text, item_id, author_id, created) " +
+                "VALUES (?, ?, ?, ?, ?)", comments);
+
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQuery_shouldUseIndex(String query, Runnable call, List<Pattern> accessPaths) {
+        List<String> statements = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return statementRecorder.record(call);
+        });
+        assertThat(statements).isNotEmpty();
+
+        String plans = statements.stream()
+                .map(sql -> jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class))
+                .collect(Collectors.joining("\n"));
+        assertThat(plans).doesNotContainIgnoringCase("tableScan");
+        for (Pattern accessPath : accessPaths) {
+            assertThat(plans).containsPattern(accessPath);
+        }
+    }
+
+    private Stream<Arguments> hotQueries() {
+        return Stream.of(
+                query("BookingRepository.findAllByRoleAndState(BOOKER)",
+                        () -> bookingRepository.findAllByRoleAndState(Role.BOOKER, 3, State.ALL, 20, 20),
+                        lookup("bookings", "booker_id"), lookup("items", "id"), lookup("users", "id")),
+                query("BookingRepository.findAllByRoleAndStateAfter(BOOKER, PAST)",
+                        () -> bookingRepository.findAllByRoleAndStateAfter(Role.BOOKER, 3, State.PAST,
+                                NOW.minusDays(12), 100, 20),
+                        lookup("bookings", "booker_id"), lookup("items", "id"), lookup("users", "id")),
+                query("BookingRepository.findAllByRoleAndState(OWNER)",
+                        () -> bookingRepository.findAllByRoleAndState(Role.OWNER, 3, State.ALL, 0, 20),
+                        lookup("items", "owner_id"), lookup("bookings", "item_id"), lookup("users", "id")),
+                query("BookingRepository.findOutputById",
+                        () -> bookingRepository.findOutputById(7),
+                        lookup("bookings", "id"), lookup("items", "id"), lookup("users", "id")),
+                query("BookingRepository.findVersionById",
+                        () -> bookingRepository.findVersionById(7),
+                        lookup("bookings", "id"), lookup("items", "id"), lookup("users", "id")),
+                query("BookingRepository.findBookingsByBooker_IdAndItem_IdAndEndIsLessThanEqual",
+                        () -> bookingRepository.findBookingsByBooker_IdAndItem_IdAndEndIsLessThanEqual(3, 46, NOW),
+                        lookup("bookings", "(booker_id|item_id)")),
+                query("BookingRepository.findLastAndNextByItem_IdIn",
+                        () -> bookingRepository.findLastAndNextByItem_IdIn(List.of(1L, 2L, 3L), NOW),
+                        lookup("bookings", "item_id")),
+                query("BookingRepository.findUpcomingStartingBetween",
+                        () -> bookingRepository.findUpcomingStartingBetween(NOW, NOW.plusHours(1)),
+                        lookup("bookings", "phase")),
+                query("BookingRepository.findActiveEndingBetween",
+                        () -> bookingRepository.findActiveEndingBetween(NOW, NOW.plusHours(1)),
+                        lookup("bookings", "phase")),
+                query("BookingRepository.finishEndedBy",
+                        () -> bookingRepository.finishEndedBy(NOW),
+                        lookup("bookings", "phase")),
+                query("BookingRepository.activateStartedBy",
+                        () -> bookingRepository.activateStartedBy(NOW),
+                        lookup("bookings", "phase")),
+                query("BookingRepository.existsApprovedOverlap",
+                        () -> bookingRepository.existsApprovedOverlap(1, 5, NOW, NOW.plusDays(1)),
+                        lookup("bookings", "item_id")),
+                query("ItemRepository.findVersionById",
+                        () -> itemRepository.findVersionById(1),
+                        lookup("items", "id")),
+                query("ItemRepository.findAllByOwner_Id_OrderByIdAsc",
+                        () -> itemRepository.findAllByOwner_Id_OrderByIdAsc(3, PageRequest.of(0, 20)),
+                        lookup("items", "owner_id")),
+                query("ItemRepository.findAllByOwner_IdAndIdGreaterThanOrderByIdAsc",
+                        () -> itemRepository.findAllByOwner_IdAndIdGreaterThanOrderByIdAsc(3, 100,
+                                PageRequest.of(0, 20)),
+                        lookup("items", "owner_id")),
+                query("ItemRepository.findByRequest_IdIn",
+                        () -> itemRepository.findByRequest_IdIn(List.of(1L, 2L, 3L)),
+                        lookup("items", "request_id")),
+                query("ItemRepository.findByRequest_IdOrderById",
+                        () -> itemRepository.findByRequest_IdOrderById(6),
+                        lookup("items", "request_id")),
+                query("CommentRepository.findLatestByItem_IdIn",
+                        () -> commentRepository.findLatestByItem_IdIn(List.of(1L, 2L, 3L), 3),
+                        lookup("comments", "item_id"), lookup("users", "id")),
+                query("CommentRepository.findPageByItem_Id",
+                        () -> commentRepository.findPageByItem_Id(1, PageRequest.of(0, 20)),
+                        lookup("comments", "item_id"), lookup("users", "id")),
+                query("CommentRepository.findPageByItem_IdAfter",
+                        () -> commentRepository.findPageByItem_IdAfter(1, NOW.minusHours(1), 100,
+                                PageRequest.of(0, 20)),
+                        lookup("comments", "item_id"), lookup("users", "id")),
+                query("ItemRequestRepository.findByRequestor_Id",
+                        () -> itemRequestRepository.findByRequestor_Id(3),
+                        lookup("requests", "requestor_id")),
+                query("ItemRequestRepository.findByRequestor_IdNot",
+                        () -> itemRequestRepository.findByRequestor_IdNot(3, PageRequest.of(1, 20)),
+                        sortedBy("idx_requests_created")),
+                query("ItemRequestRepository.findRecent",
+                        () -> itemRequestRepository.findRecent(PageRequest.of(0, 1001)),
+                        sortedBy("idx_requests_created")),
+                query("ItemRequestRepository.findByRequestor_IdNotAfter",
+                        () -> itemRequestRepository.findByRequestor_IdNotAfter(3, NOW.minusDays(2), 100,
+                                PageRequest.of(0, 20)),
+                        sortedBy("idx_requests_created")),
+                query("ItemRequestRepository.findVersionById",
+                        () -> itemRequestRepository.findVersionById(1),
+                        lookup("requests", "id"), lookup("users", "id"))
+        );
+    }
+
+    private static Arguments query(String query, Runnable call, Pattern... accessPaths) {
+        return Arguments.of(query, call, List.of(accessPaths));
+    }
+
+    private static Pattern lookup(String table, String column) {
+        return Pattern.compile("\"?PUBLIC\"?\\.\"?" + table + "\"?( \"?\\w+\"?)?\\s*/\\* PUBLIC\\.\\w+: [^*]*?\\b"
+                + column + " ", Pattern.CASE_INSENSITIVE);
+    }
+
+    private static Pattern sortedBy(String index) {
+        return Pattern.compile("/\\* PUBLIC\\." + index + " \\*/.*/\\* index sorted \\*/",
+                Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    }
+
+    /**
+     * Keeps the SQL Hibernate prepares while a call runs, with {@code ?} in place of the bound parameters.
+     */
+    static class StatementRecorder implements StatementInspector, HibernatePropertiesCustomizer {
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        @Override
+        public void customize(Map<String, Object> hibernateProperties) {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+        }
+
+        List<String> record(Runnable call) {
+            statements.clear();
+            call.run();
+            return List.copyOf(statements);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDtoBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -87,6 +88,33 @@ class BookingControllerTest {
                 .create(1L, inputBookingDto);
     }
 
+    @Test
+    void shouldCreateAll() throws Exception {
+        Mockito
+                .when(bookingService.createAll(anyLong(), anyList()))
+                .thenReturn(List.of(
+                        new BookingDtoBatchResult(0, bookingDto, null),
+                        new BookingDtoBatchResult(1, null, "Item is not available")));
+
+        mvc.perform(
+                        post("/bookings/batch")
+                                .header("X-Sharer-User-Id", userOleg.getId())
+                                .content(mapper.writeValueAsString(List.of(inputBookingDto, inputBookingDto)))
+                                .characterEncoding(StandardCharsets.UTF_8)
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[0].booking.id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$[0].booking.status", is(bookingDto.getStatus().name())))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].error", is("Item is not available")));
+
+        Mockito
+                .verify(bookingService, Mockito.times(1))
+                .createAll(1L, List.of(inputBookingDto, inputBookingDto));
+    }
+
     @Test
     void shouldReturnNotFoundIfUserWrong() throws Exception {
         Mockito
@@ -139,7 +167,7 @@ class BookingControllerTest {
     @Test
     void shouldUpdateStatus() throws Exception {
         Mockito
-                .when(bookingService.updateStatus(anyLong(), anyLong(), eq(true)))
+                .when(bookingService.updateStatus(anyLong(), anyLong(), eq(true), isNull()))
                 .thenReturn(approved);
 
         mvc.perform(
@@ -160,13 +188,13 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is(approved.getStatus().name())));
 
         Mockito.verify(bookingService, Mockito.times(1))
-                .updateStatus(2L, 4L, true);
+                .updateStatus(2L, 4L, true, null);
     }
 
     @Test
     void updateStatus_shouldThrowException() throws Exception {
         Mockito
-                .when(bookingService.updateStatus(anyLong(), anyLong(), eq(true)))
+                .when(bookingService.updateStatus(anyLong(), anyLong(), eq(true), isNull()))
                 .thenThrow(new AccessException("You are not owner of this item"));
 
         mvc.perform(
@@ -179,7 +207,7 @@ class BookingControllerTest {
                 .andExpect(status().isNotFound());
 
         Mockito.verify(bookingService, Mockito.times(1))
-                .updateStatus(2L, 4L, true);
+                .updateStatus(2L, 4L, true, null);
     }
 
     @Test
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIndexServiceImplTest {
+    private final User userOleg = new User(1L, "Oleg", "oleg@yandex.ru");
+    private final User userIrina = new User(2L, "Irina", "irina@yandex.ru");
+    private final Item dryer = new Item(3L, "Dryer", "For curly hair", true, userIrina, null);
+    private final Booking january = new Booking(6L,
+            LocalDateTime.of(2030, 1, 10, 12, 0),
+            LocalDateTime.of(2030, 1, 20, 12, 0),
+            dryer, userOleg, Status.APPROVED);
+    private final Booking march = new Booking(7L,
+            LocalDateTime.of(2030, 3, 10, 12, 0),
+            LocalDateTime.of(2030, 3, 20, 12, 0),
+            dryer, userOleg, Status.APPROVED);
+    @Mock
+    private BookingRepository mockBookingRepository;
+    @InjectMocks
+    private BookingIndexServiceImpl bookingIndexService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito
+                .when(mockBookingRepository.findBookingsByStatus(Status.APPROVED))
+                .thenReturn(List.of(january, march));
+        bookingIndexService.load();
+    }
+
+    @Test
+    void hasApprovedOverlap_shouldDetectIntersection() {
+        assertTrue(bookingIndexService.hasApprovedOverlap(dryer.getId(),
+                LocalDateTime.of(2030, 1, 15, 12, 0), LocalDateTime.of(2030, 2, 1, 12, 0)));
+        assertTrue(bookingIndexService.hasApprovedOverlap(dryer.getId(),
+                LocalDateTime.of(2030, 1, 1, 12, 0), LocalDateTime.of(2030, 4, 1, 12, 0)));
+    }
+
+    @Test
+    void hasApprovedOverlap_shouldAllowAdjacentAndFreePeriods() {
+        assertFalse(bookingIndexService.hasApprovedOverlap(dryer.getId(),
+                january.getEnd(), march.getStart()));
+        assertFalse(bookingIndexService.hasApprovedOverlap(99L,
+                january.getStart(), january.getEnd()));
+    }
+
+    @Test
+    void hasApprovedOverlap_shouldDetectIntersectionWithEarlierOverlappingInterval() {
+        Booking winter = new Booking(8L,
+                LocalDateTime.of(2030, 1, 1, 12, 0),
+                LocalDateTime.of(2030, 3, 1, 12, 0),
+                dryer, userOleg, Status.APPROVED);
+        Mockito
+                .when(mockBookingRepository.findBookingsByStatus(Status.APPROVED))
+                .thenReturn(List.of(winter, january, march));
+        bookingIndexService.load();
+
+        assertTrue(bookingIndexService.hasApprovedOverlap(dryer.getId(),
+                LocalDateTime.of(2030, 2, 1, 12, 0), LocalDateTime.of(2030, 2, 5, 12, 0)));
+        assertFalse(bookingIndexService.hasApprovedOverlap(dryer.getId(),
+                winter.getEnd(), march.getStart()));
+    }
+
+    @Test
+    void getLastAndNext_shouldReturnNearestIntervals() {
+        LocalDateTime date = LocalDateTime.of(2030, 2, 1, 12, 0);
+
+        assertEquals(january.getId(), bookingIndexService.getLastBooking(dryer.getId(), date).get().getId());
+        assertEquals(march.getId(), bookingIndexService.getNextBooking(dryer.getId(), date).get().getId());
+        assertTrue(bookingIndexService.getLastBooking(99L, date).isEmpty());
+    }
+
+    @Test
+    void getLastAndNext_shouldPreferEndAmongOverlappingIntervals() {
+        Booking winter = new Booking(8L,
+                LocalDateTime.of(2030, 1, 1, 12, 0),
+                LocalDateTime.of(2030, 3, 1, 12, 0),
+                dryer, userOleg, Status.APPROVED);
+        Booking spring = new Booking(9L,
+                LocalDateTime.of(2030, 3, 5, 12, 0),
+                LocalDateTime.of(2030, 4, 1, 12, 0),
+                dryer, userOleg, Status.APPROVED);
+        Mockito
+                .when(mockBookingRepository.findBookingsByStatus(Status.APPROVED))
+                .thenReturn(List.of(winter, january, spring, march));
+        bookingIndexService.load();
+
+        assertEquals(winter.getId(), bookingIndexService.getLastBooking(dryer.getId(),
+                LocalDateTime.of(2030, 2, 1, 12, 0)).get().getId());
+        assertEquals(march.getId(), bookingIndexService.getNextBooking(dryer.getId(),
+                LocalDateTime.of(2030, 3, 2, 12, 0)).get().getId());
+        assertEquals(spring.getStart(), bookingIndexService.getNextStart(dryer.getId(),
+                LocalDateTime.of(2030, 3, 2, 12, 0)).get());
+    }
+
+    @Test
+    void getLastBooking_shouldPickLatestEndRatherThanEarliest() {
+        Booking weekend = new Booking(8L,
+                LocalDateTime.of(2030, 1, 12, 12, 0),
+                LocalDateTime.of(2030, 1, 14, 12, 0),
+                dryer, userOleg, Status.APPROVED);
+        Mockito
+                .when(mockBookingRepository.findBookingsByStatus(Status.APPROVED))
+                .thenReturn(List.of(january, weekend, march));
+        bookingIndexService.load();
+
+        assertEquals(january.getId(), bookingIndexService.getLastBooking(dryer.getId(),
+                LocalDateTime.of(2030, 2, 1, 12, 0)).get().getId());
+    }
+
+    @Test
+    void removeItem_shouldDropItsIntervals() {
+        bookingIndexService.removeItem(dryer.getId());
+
+        assertFalse(bookingIndexService.hasApprovedOverlap(dryer.getId(), march.getStart(), march.getEnd()));
+        assertTrue(bookingIndexService.getLastBooking(dryer.getId(), march.getEnd()).isEmpty());
+    }
+
+    @Test
+    void remove_shouldFreePeriod() {
+        bookingIndexService.remove(march);
+
+        assertFalse(bookingIndexService.hasApprovedOverlap(dryer.getId(), march.getStart(), march.getEnd()));
+        assertTrue(bookingIndexService.getNextBooking(dryer.getId(), january.getEnd()).isEmpty());
+    }
+}
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.booking.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPointerServiceImplTest {
+    private static final long DRYER_ID = 3L;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final BookingInterval yesterday = new BookingInterval(6L, 1L, now.minusDays(1), now.minusHours(20));
+    private final BookingInterval tomorrow = new BookingInterval(7L, 1L, now.plusDays(1), now.plusDays(2));
+    private final SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+    @Mock
+    private BookingIndexService mockBookingIndexService;
+    @Mock
+    private BookingRepository mockBookingRepository;
+    @Mock
+    private ItemRepository mockItemRepository;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private BookingPointerServiceImpl bookingPointerService;
+
+    @BeforeEach
+    void setUp() {
+        bookingPointerService = new BookingPointerServiceImpl(mockBookingIndexService, mockBookingRepository,
+                mockItemRepository, registry, Duration.ofSeconds(1), 64, Duration.ZERO);
+        Mockito
+                .lenient()
+                .when(mockBookingIndexService.getLastBooking(anyLong(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> Optional.of(invocation.<LocalDateTime>getArgument(1)
+                        .isBefore(tomorrow.getStart()) ? yesterday : tomorrow));
+        Mockito
+                .lenient()
+                .when(mockBookingIndexService.getNextBooking(anyLong(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> invocation.<LocalDateTime>getArgument(1).isBefore(tomorrow.getStart())
+                        ? Optional.of(tomorrow) : Optional.empty());
+        Mockito
+                .lenient()
+                .when(mockBookingIndexService.getNextStart(anyLong(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> invocation.<LocalDateTime>getArgument(1).isBefore(tomorrow.getStart())
+                        ? Optional.of(tomorrow.getStart()) : Optional.empty());
+    }
+
+    @Test
+    void getAll_shouldComputePointerOnce() {
+        bookingPointerService.getAll(Set.of(DRYER_ID));
+        BookingPointer pointer = bookingPointerService.getAll(Set.of(DRYER_ID)).get(DRYER_ID);
+
+        assertEquals(yesterday, pointer.getLast());
+        assertEquals(tomorrow, pointer.getNext());
+        Mockito
+                .verify(mockBookingIndexService, Mockito.times(1)).getLastBooking(eq(DRYER_ID), any());
+    }
+
+    @Test
+    void advance_shouldMovePointerWhenNextBookingStarts() {
+        bookingPointerService.getAll(Set.of(DRYER_ID));
+        LocalDateTime started = tomorrow.getStart().plusSeconds(2);
+
+        bookingPointerService.advance(now.plusHours(1));
+        bookingPointerService.advance(started);
+
+        Mockito
+                .verify(mockBookingIndexService, Mockito.times(2)).getLastBooking(eq(DRYER_ID), any());
+        Mockito
+                .verify(mockBookingIndexService).getNextBooking(DRYER_ID, started);
+    }
+
+    @Test
+    void refresh_shouldRecomputePointer() {
+        bookingPointerService.getAll(Set.of(DRYER_ID));
+        Mockito
+                .when(mockBookingIndexService.getNextBooking(eq(DRYER_ID), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        bookingPointerService.refresh(DRYER_ID);
+
+        assertNull(bookingPointerService.getAll(Set.of(DRYER_ID)).get(DRYER_ID).getNext());
+    }
+
+    @Test
+    void refresh_shouldKeepOneTimerWhileNextStartIsUnchanged() {
+        bookingPointerService.getAll(Set.of(DRYER_ID));
+
+        bookingPointerService.refresh(DRYER_ID);
+        bookingPointerService.refresh(DRYER_ID);
+
+        assertEquals(1, registry.get("shareit.booking.pointer.timers").gauge().value());
+    }
+
+    @Test
+    void remove_shouldDropPointer() {
+        bookingPointerService.getAll(Set.of(DRYER_ID));
+
+        bookingPointerService.remove(DRYER_ID);
+        bookingPointerService.getAll(Set.of(DRYER_ID));
+
+        assertEquals(1, registry.get("shareit.booking.pointers").gauge().value());
+        Mockito
+                .verify(mockBookingIndexService, Mockito.times(2)).getLastBooking(eq(DRYER_ID), any());
+    }
+
+    @Test
+    void check_shouldFindNoMismatchesIfPointersMatchBookings() {
+        Mockito
+                .when(mockItemRepository.findIdsAfter(0L, PageRequest.of(0, 500)))
+                .thenReturn(List.of(DRYER_ID));
+        Mockito
+                .when(mockBookingRepository.findLastAndNextByItem_IdIn(eq(List.of(DRYER_ID)), any()))
+                .thenReturn(List.of(itemBookingView(yesterday, false), itemBookingView(tomorrow, true)));
+
+        assertEquals(0, bookingPointerService.check());
+    }
+
+    @Test
+    void check_shouldCountMismatchesConfirmedTwice() {
+        Mockito
+                .when(mockItemRepository.findIdsAfter(0L, PageRequest.of(0, 500)))
+                .thenReturn(List.of(DRYER_ID));
+        Mockito
+                .when(mockBookingRepository.findLastAndNextByItem_IdIn(eq(List.of(DRYER_ID)), any()))
+                .thenReturn(List.of(itemBookingView(yesterday, false)));
+
+        assertEquals(1, bookingPointerService.check());
+        Mockito
+                .verify(mockBookingRepository, Mockito.times(2)).findLastAndNextByItem_IdIn(any(), any());
+    }
+
+    private ItemBookingView itemBookingView(BookingInterval booking, boolean isNext) {
+        return projectionFactory.createProjection(ItemBookingView.class, Map.of(
+                "itemId", DRYER_ID,
+                "id", booking.getId(),
+                "bookerId", booking.getBookerId(),
+                "isNext", isNext));
+    }
+}
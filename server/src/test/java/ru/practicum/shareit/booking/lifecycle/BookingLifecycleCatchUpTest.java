@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Sql(statements = {
+        "INSERT INTO users (id, name, email) VALUES (1, 'Oleg', 'oleg@yandex.ru')",
+        "INSERT INTO users (id, name, email) VALUES (2, 'Irina', 'irina@yandex.ru')",
+        "INSERT INTO items (id, name, description, is_available, owner_id) VALUES (3, 'Dryer', 'For curly hair', true, 1)",
+        "INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (4, '2023-01-20 12:00:00', '2023-02-15 12:00:00', 3, 2, 'APPROVED')",
+        "INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (5, '2023-01-20 12:00:00', '2100-02-15 12:00:00', 3, 2, 'APPROVED')",
+        "INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (6, '2100-01-20 12:00:00', '2100-02-15 12:00:00', 3, 2, 'WAITING')"
+})
+class BookingLifecycleCatchUpTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void catchUp_shouldFixPhasesOfRowsInsertedWithColumnDefault() {
+        BookingLifecycleServiceImpl bookingLifecycleService = new BookingLifecycleServiceImpl(bookingRepository,
+                new SimpleMeterRegistry(), Duration.ofSeconds(1), 64, Duration.ofHours(1));
+
+        assertEquals(2, bookingLifecycleService.catchUp());
+        assertEquals("FINISHED", phaseOf(4));
+        assertEquals("ACTIVE", phaseOf(5));
+        assertEquals("UPCOMING", phaseOf(6));
+    }
+
+    private String phaseOf(long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT phase FROM bookings WHERE id = ?", String.class, bookingId);
+    }
+}
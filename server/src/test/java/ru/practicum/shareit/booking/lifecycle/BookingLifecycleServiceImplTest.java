@@ -0,0 +1,115 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.dto.BookingPeriodView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+
+@ExtendWith(MockitoExtension.class)
+class BookingLifecycleServiceImplTest {
+    private final SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LocalDateTime now = LocalDateTime.now();
+    @Mock
+    private BookingRepository mockBookingRepository;
+    private BookingLifecycleServiceImpl bookingLifecycleService;
+
+    @BeforeEach
+    void setUp() {
+        bookingLifecycleService = new BookingLifecycleServiceImpl(mockBookingRepository, registry,
+                Duration.ofSeconds(1), 64, Duration.ofHours(1));
+    }
+
+    @Test
+    void load_shouldCatchUpAndScheduleTransitionsWithinHorizon() {
+        Mockito
+                .when(mockBookingRepository.finishEndedBy(any()))
+                .thenReturn(2);
+        Mockito
+                .when(mockBookingRepository.findUpcomingStartingBetween(any(), any()))
+                .thenReturn(List.of(period(6L, now.plusMinutes(10), now.plusMinutes(40))));
+        Mockito
+                .when(mockBookingRepository.findActiveEndingBetween(any(), any()))
+                .thenReturn(List.of(period(7L, now.minusDays(1), now.plusMinutes(20))));
+
+        bookingLifecycleService.load(now);
+
+        assertEquals(2.0, registry.get("shareit.booking.lifecycle.caught-up").functionCounter().count());
+        assertEquals(2.0, registry.get("shareit.booking.lifecycle.scheduled").gauge().value());
+    }
+
+    @Test
+    void advance_shouldUpdatePhasesAndRecordLag() {
+        Mockito
+                .when(mockBookingRepository.findUpcomingStartingBetween(any(), any()))
+                .thenReturn(List.of(period(6L, now.plusMinutes(10), now.plusMinutes(40))));
+        bookingLifecycleService.load(now);
+
+        bookingLifecycleService.advance(now.plusMinutes(10).plusSeconds(3));
+        Mockito
+                .verify(mockBookingRepository).activateByIdIn(List.of(6L));
+
+        bookingLifecycleService.advance(now.plusMinutes(41));
+        Mockito
+                .verify(mockBookingRepository).finishByIdIn(List.of(6L));
+        assertEquals(2, registry.get("shareit.booking.lifecycle.lag").timer().count());
+        assertEquals(0.0, registry.get("shareit.booking.lifecycle.scheduled").gauge().value());
+    }
+
+    @Test
+    void advance_shouldRetryTransitionsOnNextTickIfUpdateFails() {
+        Mockito
+                .when(mockBookingRepository.findUpcomingStartingBetween(any(), any()))
+                .thenReturn(List.of(period(6L, now.plusMinutes(10), now.plusMinutes(40))));
+        Mockito
+                .when(mockBookingRepository.activateByIdIn(any()))
+                .thenThrow(new IllegalStateException("Connection is closed"))
+                .thenReturn(1);
+        bookingLifecycleService.load(now);
+
+        assertThrows(IllegalStateException.class,
+                () -> bookingLifecycleService.advance(now.plusMinutes(10).plusSeconds(3)));
+        assertEquals(1.0, registry.get("shareit.booking.lifecycle.scheduled").gauge().value());
+
+        bookingLifecycleService.advance(now.plusMinutes(10).plusSeconds(4));
+        Mockito
+                .verify(mockBookingRepository, Mockito.times(2)).activateByIdIn(List.of(6L));
+        assertEquals(1, registry.get("shareit.booking.lifecycle.lag").timer().count());
+        assertEquals(1.0, registry.get("shareit.booking.lifecycle.scheduled").gauge().value());
+    }
+
+    @Test
+    void tick_shouldLoadNextWindowWhenHalfOfHorizonPassed() {
+        bookingLifecycleService.load(now);
+
+        bookingLifecycleService.tick(now.plusMinutes(20));
+        bookingLifecycleService.tick(now.plusMinutes(31));
+
+        Mockito
+                .verify(mockBookingRepository, Mockito.times(2)).findUpcomingStartingBetween(any(), any());
+        Mockito
+                .verify(mockBookingRepository).findUpcomingStartingBetween(now.plusHours(1),
+                        now.plusMinutes(31).plusHours(1));
+    }
+
+    private BookingPeriodView period(long id, LocalDateTime start, LocalDateTime end) {
+        return projectionFactory.createProjection(BookingPeriodView.class, Map.of(
+                "id", id,
+                "start", start,
+                "end", end));
+    }
+}
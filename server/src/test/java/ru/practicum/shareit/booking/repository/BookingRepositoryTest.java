@@ -6,6 +6,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlGroup;
+import ru.practicum.shareit.booking.Role;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingOutputView;
+import ru.practicum.shareit.booking.dto.BookingPeriodView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.Status;
 import ru.practicum.shareit.item.model.Item;
@@ -64,24 +70,109 @@ class BookingRepositoryTest {
             itemHammer,
             userOleg,
             Status.APPROVED);
-    private final Set<Long> setIds = Set.of(1L, 2L, 3L, 4L, 5L, 6L, 7L);
 
-    private final LocalDateTime date = LocalDateTime.now();
+    @Test
+    void shouldFindAllByOwnerAndState() {
+        List<BookingDtoOutput> all = bookingRepository.findAllByRoleAndState(Role.OWNER, userIrina.getId(), State.ALL,
+                0, 10);
+        List<BookingDtoOutput> current = bookingRepository.findAllByRoleAndState(Role.OWNER, userIrina.getId(),
+                State.CURRENT, 0, 10);
+        List<BookingDtoOutput> past = bookingRepository.findAllByRoleAndState(Role.OWNER, userIrina.getId(), State.PAST,
+                0, 10);
+
+        assertThat(all).extracting(BookingDtoOutput::getId).containsExactly(bookingCurrent.getId(), bookingPast.getId());
+        assertThat(current).extracting(BookingDtoOutput::getId).containsExactly(bookingCurrent.getId());
+        assertThat(past).extracting(BookingDtoOutput::getId).containsExactly(bookingPast.getId());
+    }
 
     @Test
-    void shouldFindByItemId_AndStartBefore_OrderByEndDesc() {
-        List<Booking> result = bookingRepository.findByItem_IdInAndStartIsLessThanEqualOrderByEndDesc(setIds, date);
+    void shouldFindAllByBookerAndStateWithOffset() {
+        List<BookingDtoOutput> future = bookingRepository.findAllByRoleAndState(Role.BOOKER, userIrina.getId(), State.FUTURE,
+                0, 10);
+        List<BookingDtoOutput> secondPage = bookingRepository.findAllByRoleAndState(Role.BOOKER, userOleg.getId(), State.ALL,
+                1, 1);
 
-        assertThat(result).isNotEmpty();
-        assertThat(result.get(0).getId()).isEqualTo(bookingCurrent.getId());
-        assertThat(result.get(1).getId()).isEqualTo(bookingPast.getId());
+        assertThat(future).extracting(BookingDtoOutput::getId).containsExactly(booking.getId());
+        assertThat(secondPage).extracting(BookingDtoOutput::getId).containsExactly(bookingPast.getId());
+        assertThat(secondPage.get(0).getItem().getName()).isEqualTo(itemHammer.getName());
     }
 
     @Test
-    void shouldFindByItemId_AndStartAfter_OrderByEndAsc() {
-        List<Booking> result = bookingRepository.findByItem_IdInAndStartAfterOrderByEndAsc(setIds, date);
+    void shouldFindAllByOwnerAndStateAfterCursor() {
+        List<BookingDtoOutput> result = bookingRepository.findAllByRoleAndStateAfter(Role.OWNER, userIrina.getId(), State.ALL,
+                bookingCurrent.getStart(), bookingCurrent.getId(), 10);
 
-        assertThat(result).isNotEmpty();
-        assertThat(result.get(0).getId()).isEqualTo(booking.getId());
+        assertThat(result).extracting(BookingDtoOutput::getId).containsExactly(bookingPast.getId());
+    }
+
+    @Test
+    void shouldFindTransitionsBetween() {
+        LocalDateTime from = LocalDateTime.of(2023, 1, 1, 12, 0);
+        LocalDateTime to = LocalDateTime.of(2023, 12, 31, 12, 0);
+
+        assertThat(bookingRepository.findUpcomingStartingBetween(from, to))
+                .extracting(BookingPeriodView::getId).containsExactly(booking.getId());
+        assertThat(bookingRepository.findActiveEndingBetween(from, to))
+                .extracting(BookingPeriodView::getId).containsExactly(bookingCurrent.getId());
+        assertThat(bookingRepository.findUpcomingStartingBetween(booking.getStart(), to)).isEmpty();
+    }
+
+    @Test
+    void shouldCatchUpPhasesOnlyForward() {
+        LocalDateTime date = LocalDateTime.of(2023, 12, 15, 12, 0);
+
+        assertThat(bookingRepository.finishEndedBy(date)).isEqualTo(1);
+        assertThat(bookingRepository.activateStartedBy(date)).isEqualTo(1);
+        assertThat(bookingRepository.activateByIdIn(List.of(bookingCurrent.getId(), bookingPast.getId()))).isZero();
+        assertThat(bookingRepository.findAllByRoleAndState(Role.BOOKER, userIrina.getId(), State.CURRENT, 0, 10))
+                .extracting(BookingDtoOutput::getId).containsExactly(booking.getId());
+    }
+
+    @Test
+    void shouldFindOutputById() {
+        BookingOutputView result = bookingRepository.findOutputById(booking.getId()).orElseThrow();
+
+        assertThat(result.getStart()).isEqualTo(booking.getStart());
+        assertThat(result.getItemId()).isEqualTo(itemDryer.getId());
+        assertThat(result.getItemName()).isEqualTo(itemDryer.getName());
+        assertThat(result.getBookerName()).isEqualTo(userIrina.getName());
+        assertThat(result.getStatus()).isEqualTo(Status.APPROVED);
+        assertThat(result.getOwnerId()).isEqualTo(userOleg.getId());
+        assertThat(bookingRepository.findOutputById(99L)).isEmpty();
+    }
+
+    @Test
+    void shouldFindLastAndNextByItemIdIn() {
+        List<ItemBookingView> result = bookingRepository.findLastAndNextByItem_IdIn(Set.of(3L, 5L),
+                LocalDateTime.of(2023, 1, 1, 12, 0));
+
+        assertThat(result).hasSize(3);
+        assertThat(result).anySatisfy(b -> {
+            assertThat(b.getItemId()).isEqualTo(itemHammer.getId());
+            assertThat(b.getId()).isEqualTo(bookingPast.getId());
+            assertThat(b.getBookerId()).isEqualTo(userOleg.getId());
+            assertThat(b.getIsNext()).isFalse();
+        });
+        assertThat(result).anySatisfy(b -> {
+            assertThat(b.getItemId()).isEqualTo(itemHammer.getId());
+            assertThat(b.getId()).isEqualTo(bookingCurrent.getId());
+            assertThat(b.getIsNext()).isTrue();
+        });
+        assertThat(result).anySatisfy(b -> {
+            assertThat(b.getItemId()).isEqualTo(itemDryer.getId());
+            assertThat(b.getId()).isEqualTo(booking.getId());
+            assertThat(b.getBookerId()).isEqualTo(userIrina.getId());
+            assertThat(b.getIsNext()).isTrue();
+        });
+    }
+
+    @Test
+    void shouldFindOnlyLatestPastBookingAsLast() {
+        List<ItemBookingView> result = bookingRepository.findLastAndNextByItem_IdIn(Set.of(5L),
+                LocalDateTime.of(2023, 6, 1, 12, 0));
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getId()).isEqualTo(bookingCurrent.getId());
+        assertThat(result.get(0).getIsNext()).isFalse();
     }
-}
\ No newline at end of file
+}
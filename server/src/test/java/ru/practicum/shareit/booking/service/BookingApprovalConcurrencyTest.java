@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.index.BookingPointerService;
+import ru.practicum.shareit.exception.AvailabilityException;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Approves groups of overlapping bookings of the same items from many threads at once and checks
+ * that no item ends up with two overlapping APPROVED bookings, and that the booking pointers read before
+ * the approvals still match the bookings table after them. Runs against its own in-memory database;
+ * the number of approvals can be changed with {@code -Dconcurrency.approvals=20000}.
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareitConcurrency",
+        "logging.level.root=info"
+})
+class BookingApprovalConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ITEMS = 20;
+    private static final int BOOKINGS_PER_SLOT = 4;
+    private static final long OWNER_ID = 1;
+    private static final long BOOKER_ID = 2;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingPointerService bookingPointerService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void parallelApprovals_shouldNotDoubleBookItems() throws Exception {
+        int approvals = Integer.getInteger("concurrency.approvals", 2000);
+        List<Long> bookingsId = seed(approvals);
+        Collections.shuffle(bookingsId, new Random(approvals));
+        bookingPointerService.getAll(LongStream.rangeClosed(1, ITEMS).boxed().collect(Collectors.toList()));
+
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger overlapping = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (long bookingId : bookingsId) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    bookingService.updateStatus(OWNER_ID, bookingId, true, null);
+                    approved.incrementAndGet();
+                } catch (AvailabilityException e) {
+                    overlapping.incrementAndGet();
+                } catch (OptimisticLockingFailureException e) {
+                    conflicts.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failures.add(e);
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        executor.shutdown();
+
+        log.info("approvals={} threads={} time={}s throughput={}/s approved={} overlapping={} " +
+                        "exhausted retries={} retried conflicts={}", approvals, THREADS, String.format("%.2f", seconds),
+                Math.round(approvals / seconds), approved.get(), overlapping.get(), conflicts.get(),
+                meterRegistry.get("shareit.optimistic.retries").functionCounter().count());
+        assertTrue(failures.isEmpty(), () -> "Unexpected failures: " + failures);
+        assertEquals(approvals, approved.get() + overlapping.get() + conflicts.get());
+        assertTrue(approved.get() > 0);
+        assertEquals(approved.get(), assertNoOverlapsAndCountApproved());
+        assertEquals(0, bookingPointerService.check());
+    }
+
+    private List<Long> seed(int approvals) {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (?, 'Owner', 'owner@yandex.ru')", OWNER_ID);
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (?, 'Booker', 'booker@yandex.ru')",
+                BOOKER_ID);
+        for (long itemId = 1; itemId <= ITEMS; itemId++) {
+            jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id) " +
+                    "VALUES (?, 'Drill', 'Cordless', true, ?)", itemId, OWNER_ID);
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusYears(1).withNano(0);
+        List<Object[]> rows = new ArrayList<>();
+        List<Long> bookingsId = new ArrayList<>();
+        for (int i = 0; i < approvals; i++) {
+            long bookingId = i + 1;
+            long itemId = i % ITEMS + 1;
+            int slot = i / (ITEMS * BOOKINGS_PER_SLOT);
+            int competitor = i / ITEMS % BOOKINGS_PER_SLOT;
+            LocalDateTime bookingStart = base.plusDays(slot * 2L).plusHours(competitor);
+            rows.add(new Object[]{bookingId, Timestamp.valueOf(bookingStart),
+                    Timestamp.valueOf(bookingStart.plusDays(1)), itemId, BOOKER_ID});
+            bookingsId.add(bookingId);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, phase) " +
+                "VALUES (?, ?, ?, ?, ?, 'WAITING', 'UPCOMING')", rows);
+        return bookingsId;
+    }
+
+    private int assertNoOverlapsAndCountApproved() {
+        List<Map<String, Object>> approvedBookings = jdbcTemplate.queryForList("SELECT item_id, start_date, " +
+                "end_date FROM bookings WHERE status = 'APPROVED' ORDER BY item_id, start_date");
+        for (int i = 1; i < approvedBookings.size(); i++) {
+            Map<String, Object> previous = approvedBookings.get(i - 1);
+            Map<String, Object> current = approvedBookings.get(i);
+            if (previous.get("ITEM_ID").equals(current.get("ITEM_ID"))) {
+                Timestamp previousEnd = (Timestamp) previous.get("END_DATE");
+                Timestamp currentStart = (Timestamp) current.get("START_DATE");
+                assertFalse(currentStart.before(previousEnd),
+                        () -> "Item " + current.get("ITEM_ID") + " is double booked at " + currentStart);
+            }
+        }
+        return approvedBookings.size();
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlGroup;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingDtoBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 import ru.practicum.shareit.exception.*;
@@ -47,6 +48,34 @@ class BookingServiceImplTest {
         assertEquals(newBookingDto.getBooker().getId(), 1L);
     }
 
+    @Test
+    @SqlGroup({
+            @Sql(value = {"before.sql"}, executionPhase = BEFORE_TEST_METHOD)
+    })
+    void shouldCreateAllWithResultPerElement() {
+        LocalDateTime start = LocalDateTime.now().plusMonths(1);
+        List<BookingDtoInput> inputBookingDtos = List.of(
+                new BookingDtoInput(start, start.plusDays(1), 5L),
+                new BookingDtoInput(start, start.plusDays(1), 3L),
+                new BookingDtoInput(start, start.plusDays(1), 99L),
+                new BookingDtoInput(start.plusDays(1), start, 5L),
+                new BookingDtoInput(start.plusDays(2), start.plusDays(3), 5L)
+        );
+
+        List<BookingDtoBatchResult> results = bookingService.createAll(1L, inputBookingDtos);
+
+        assertThat(results).extracting(BookingDtoBatchResult::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertEquals(Status.WAITING, results.get(0).getBooking().getStatus());
+        assertEquals(5L, results.get(0).getBooking().getItem().getId());
+        assertEquals(1L, results.get(0).getBooking().getBooker().getId());
+        assertEquals("Owner can't booking item", results.get(1).getError());
+        assertEquals("Item with id = 99 not found", results.get(2).getError());
+        assertEquals("Start must be before end", results.get(3).getError());
+        assertNotNull(results.get(4).getBooking().getId());
+        assertNotEquals(results.get(0).getBooking().getId(), results.get(4).getBooking().getId());
+        assertThat(bookingService.getAllByUser(1L, State.ALL, 0, 10)).hasSize(2);
+    }
+
     @Test
     @SqlGroup({
             @Sql(value = {"before-without-booking.sql"}, executionPhase = BEFORE_TEST_METHOD)
@@ -377,7 +406,7 @@ class BookingServiceImplTest {
             @Sql(value = {"before-with-one-booking.sql"}, executionPhase = BEFORE_TEST_METHOD)
     })
     void shouldUpdateStatus() {
-        BookingDtoOutput actual = bookingService.updateStatus(1L, 7L, true);
+        BookingDtoOutput actual = bookingService.updateStatus(1L, 7L, true, null);
 
         assertEquals(actual.getStatus(), Status.APPROVED);
     }
@@ -391,7 +420,7 @@ class BookingServiceImplTest {
 
         assertThrows(
                 NotFoundException.class,
-                () -> bookingService.updateStatus(1L, bookingId, true)
+                () -> bookingService.updateStatus(1L, bookingId, true, null)
         );
     }
 
@@ -404,7 +433,7 @@ class BookingServiceImplTest {
 
         assertThrows(
                 NotFoundException.class,
-                () -> bookingService.updateStatus(id, 7L, true)
+                () -> bookingService.updateStatus(id, 7L, true, null)
         );
     }
 
@@ -415,7 +444,7 @@ class BookingServiceImplTest {
     void updateStatus_ShouldThrowExceptionIfStatusEqualActual() {
         assertThrows(
                 IllegalArgumentException.class,
-                () -> bookingService.updateStatus(1L, 7L, true)
+                () -> bookingService.updateStatus(1L, 7L, true, null)
 
         );
     }
@@ -6,6 +6,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDtoOnlyIdAndBookerId;
@@ -18,6 +19,7 @@ import ru.practicum.shareit.item.dto.ItemDtoWithBookingAndComments;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoShort;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -26,6 +28,8 @@ import java.util.List;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -66,7 +70,7 @@ class ItemControllerTest {
             itemDtoDryer.getName(),
             itemDtoDryer.getDescription(),
             itemDtoDryer.getAvailable(),
-            lastBookingShort, nextBookingShort, List.of(comment));
+            lastBookingShort, nextBookingShort, List.of(comment), 1L);
     private final String commentCreated = "2023-01-20T12:10:00";
 
     @Autowired
@@ -182,6 +186,25 @@ class ItemControllerTest {
                 .getById(2L, 3L);
     }
 
+    @Test
+    void getById_shouldReturnNotModifiedIfETagMatches() throws Exception {
+        Mockito
+                .when(itemService.getETag(anyLong(), anyLong()))
+                .thenReturn("\"5d41402abc4b2a76\"");
+
+        mvc.perform(
+                        get("/items/{itemId}", itemDtoDryer.getId())
+                                .header("X-Sharer-User-Id", userDtoIrina.getId())
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"5d41402abc4b2a76\"")
+                )
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5d41402abc4b2a76\""))
+                .andExpect(content().string(""));
+
+        Mockito.verify(itemService, Mockito.never())
+                .getById(anyLong(), anyLong());
+    }
+
     @Test
     void getAll_shouldSuccess() throws Exception {
         Mockito
@@ -241,10 +264,32 @@ class ItemControllerTest {
                 .getAll(2L, 0, 1);
     }
 
+    @Test
+    void getComments_shouldReturnNextCursorIfPageIsFull() throws Exception {
+        Mockito
+                .when(itemService.getComments(anyLong(), anyLong(), isNull(), anyInt()))
+                .thenReturn(List.of(comment));
+
+        mvc.perform(
+                        get("/items/{itemId}/comments", itemDtoDryer.getId())
+                                .header("X-Sharer-User-Id", userDtoOleg.getId())
+                                .param("size", "1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id", is(comment.getId()), Long.class))
+                .andExpect(jsonPath("$.[0].authorName", is(comment.getAuthorName())))
+                .andExpect(jsonPath("$.[0].created", is(commentCreated)))
+                .andExpect(header().string(PageCursor.HEADER, PageCursor.encode(comment.getCreated(),
+                        comment.getId())));
+
+        Mockito.verify(itemService, Mockito.times(1))
+                .getComments(userDtoOleg.getId(), itemDtoDryer.getId(), null, 1);
+    }
+
     @Test
     void update_shouldSuccess() throws Exception {
         Mockito
-                .when(itemService.update(anyLong(), anyLong(), any()))
+                .when(itemService.update(anyLong(), anyLong(), any(), isNull()))
                 .thenReturn(itemDtoDryer);
 
         mvc.perform(
@@ -265,7 +310,7 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.requestId", is(itemDtoDryer.getRequestId()), Long.class));
 
         Mockito.verify(itemService, Mockito.times(1))
-                .update(2L, 3L, itemDtoDryer);
+                .update(2L, 3L, itemDtoDryer, null);
     }
 
     @Test
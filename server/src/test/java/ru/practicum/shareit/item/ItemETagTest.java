@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:shareitItemETag")
+@Sql(statements = {
+        "DELETE FROM bookings",
+        "DELETE FROM items",
+        "DELETE FROM users",
+        "INSERT INTO users (id, name, email) VALUES (1, 'Oleg', 'oleg@yandex.ru')",
+        "INSERT INTO users (id, name, email) VALUES (2, 'Irina', 'irina@yandex.ru')",
+        "INSERT INTO items (id, name, description, is_available, owner_id) VALUES (1, 'Dryer', 'For curly hair', true, 1)"
+})
+class ItemETagTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void getById_shouldChangeETagIfApprovedBookingIsRejected() throws Exception {
+        String booking = mvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 2)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemId\": 1, \"start\": \"2100-01-01T12:00:00\", " +
+                                "\"end\": \"2100-01-02T12:00:00\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long bookingId = JsonPath.parse(booking).read("$.id", Long.class);
+        mvc.perform(patch("/bookings/{id}", bookingId)
+                        .header("X-Sharer-User-Id", 1)
+                        .param("approved", "true"))
+                .andExpect(status().isOk());
+
+        String etag = mvc.perform(get("/items/{id}", 1)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mvc.perform(patch("/bookings/{id}", bookingId)
+                        .header("X-Sharer-User-Id", 1)
+                        .param("approved", "false"))
+                .andExpect(status().isOk());
+
+        String changed = mvc.perform(get("/items/{id}", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+}
@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlGroup;
 import ru.practicum.shareit.item.model.Item;
@@ -30,6 +32,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 })
 class CommentRepositoryTest {
     private final CommentRepository commentRepository;
+    private final TestEntityManager entityManager;
     User userOleg = new User(1L, "Oleg", "oleg@yandex.ru");
     User userIrina = new User(2L, "Irina", "irina@yandex.ru");
     Item dryer = new Item(3L, "Dryer", "For curly hair",
@@ -44,26 +47,42 @@ class CommentRepositoryTest {
     private final Set<Long> itemIds = new HashSet<>(Arrays.asList(1L, 3L));
 
     @Test
-    void findByItemId_shouldSuccess() {
-        List<Comment> result = commentRepository.findByItem_Id(dryer.getId());
+    void findLatestByItemIdIn_shouldReturnLatestCommentsWithTotal() {
+        Comment older = commentRepository.save(new Comment(null, "Loud",
+                entityManager.find(Item.class, dryer.getId()), entityManager.find(User.class, userIrina.getId()),
+                LocalDateTime.of(2023, 1, 10, 12, 0, 0)));
 
-        assertThat(result).isNotEmpty();
-        assertEquals(result.get(0).getId(), comment.getId());
-        assertEquals(result.get(0).getText(), comment.getText());
-        assertEquals(result.get(0).getAuthor().getId(), comment.getAuthor().getId());
-        assertEquals(result.get(0).getAuthor().getName(), comment.getAuthor().getName());
-        assertEquals(result.get(0).getCreated(), comment.getCreated());
+        List<CommentView> result = commentRepository.findLatestByItem_IdIn(itemIds, 1);
+
+        assertThat(result).hasSize(1);
+        assertEquals(comment.getId(), result.get(0).getId());
+        assertEquals(dryer.getId(), result.get(0).getItemId());
+        assertEquals(comment.getText(), result.get(0).getText());
+        assertEquals(userIrina.getName(), result.get(0).getAuthorName());
+        assertEquals(comment.getCreated(), result.get(0).getCreated());
+        assertEquals(2L, result.get(0).getTotal());
+        assertNotEquals(older.getId(), result.get(0).getId());
     }
 
     @Test
-    void findByItemIdInSet_shouldSuccess() {
-        List<Comment> result = commentRepository.findByItem_IdIn(itemIds);
+    void findPageByItemId_shouldReturnNewestCommentsByKeyset() {
+        Comment older = commentRepository.save(new Comment(null, "Loud",
+                entityManager.find(Item.class, dryer.getId()), entityManager.find(User.class, userIrina.getId()),
+                LocalDateTime.of(2023, 1, 10, 12, 0, 0)));
+
+        List<CommentDto> firstPage = commentRepository.findPageByItem_Id(dryer.getId(), PageRequest.of(0, 1));
+        List<CommentDto> secondPage = commentRepository.findPageByItem_IdAfter(dryer.getId(),
+                firstPage.get(0).getCreated(), firstPage.get(0).getId(), PageRequest.of(0, 1));
+        List<CommentDto> lastPage = commentRepository.findPageByItem_IdAfter(dryer.getId(),
+                secondPage.get(0).getCreated(), secondPage.get(0).getId(), PageRequest.of(0, 1));
 
-        assertThat(result).isNotEmpty();
-        assertEquals(result.get(0).getId(), comment.getId());
-        assertEquals(result.get(0).getText(), comment.getText());
-        assertEquals(result.get(0).getAuthor().getId(), comment.getAuthor().getId());
-        assertEquals(result.get(0).getAuthor().getName(), comment.getAuthor().getName());
-        assertEquals(result.get(0).getCreated(), comment.getCreated());
+        assertThat(firstPage).hasSize(1);
+        assertEquals(comment.getId(), firstPage.get(0).getId());
+        assertEquals(comment.getText(), firstPage.get(0).getText());
+        assertEquals(userIrina.getName(), firstPage.get(0).getAuthorName());
+        assertEquals(comment.getCreated(), firstPage.get(0).getCreated());
+        assertThat(secondPage).hasSize(1);
+        assertEquals(older.getId(), secondPage.get(0).getId());
+        assertThat(lastPage).isEmpty();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item.comment;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CommentSummaryCacheTest {
+    private static final long DRYER_ID = 3L;
+    private static final long LAMP_ID = 5L;
+
+    private final SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+    private final List<Collection<Long>> loads = new ArrayList<>();
+    private final BiFunction<Collection<Long>, Integer, List<CommentView>> loader = (itemsId, limit) -> {
+        loads.add(itemsId);
+        return itemsId.contains(DRYER_ID) ? List.of(commentView(8L, 3L), commentView(7L, 3L)) : List.of();
+    };
+    private final CommentSummaryCache commentSummaryCache = new CommentSummaryCache(100, Duration.ofMinutes(1), 2);
+
+    @Test
+    void getAll_shouldLoadMissingItemsInOneCall() {
+        commentSummaryCache.getAll(Set.of(DRYER_ID), loader);
+        Map<Long, CommentSummary> summaries = commentSummaryCache.getAll(Set.of(DRYER_ID, LAMP_ID), loader);
+
+        assertEquals(List.of(Set.of(DRYER_ID), Set.of(LAMP_ID)), loads);
+        assertEquals(3L, summaries.get(DRYER_ID).getCount());
+        assertEquals(List.of(8L, 7L), ids(summaries.get(DRYER_ID)));
+        assertEquals(CommentSummary.EMPTY, summaries.get(LAMP_ID));
+    }
+
+    @Test
+    void add_shouldPrependCommentAndKeepLatestSize() {
+        commentSummaryCache.get(DRYER_ID, loader);
+
+        commentSummaryCache.add(DRYER_ID, commentDto(9L));
+        CommentSummary summary = commentSummaryCache.get(DRYER_ID, loader);
+
+        assertEquals(1, loads.size());
+        assertEquals(4L, summary.getCount());
+        assertEquals(List.of(9L, 8L), ids(summary));
+    }
+
+    @Test
+    void add_shouldIgnoreCommentAlreadyInSummary() {
+        commentSummaryCache.get(DRYER_ID, loader);
+
+        commentSummaryCache.add(DRYER_ID, commentDto(8L));
+
+        assertEquals(3L, commentSummaryCache.get(DRYER_ID, loader).getCount());
+    }
+
+    @Test
+    void add_shouldNotCacheSummaryOfNotLoadedItem() {
+        commentSummaryCache.add(LAMP_ID, commentDto(9L));
+
+        assertEquals(CommentSummary.EMPTY, commentSummaryCache.get(LAMP_ID, loader));
+        assertEquals(1, loads.size());
+    }
+
+    @Test
+    void getAll_shouldNotKeepSummaryLoadedAcrossNewComment() {
+        BiFunction<Collection<Long>, Integer, List<CommentView>> racingLoader = (itemsId, limit) -> {
+            List<CommentView> read = loader.apply(itemsId, limit);
+            commentSummaryCache.add(DRYER_ID, commentDto(9L));
+            return read;
+        };
+
+        commentSummaryCache.get(DRYER_ID, racingLoader);
+        commentSummaryCache.get(DRYER_ID, loader);
+
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void evict_shouldLoadSummaryAgain() {
+        commentSummaryCache.get(DRYER_ID, loader);
+        commentSummaryCache.evict(DRYER_ID);
+        commentSummaryCache.get(DRYER_ID, loader);
+
+        assertEquals(2, loads.size());
+    }
+
+    private List<Long> ids(CommentSummary summary) {
+        return summary.getLatest().stream().map(CommentDto::getId).collect(Collectors.toList());
+    }
+
+    private CommentDto commentDto(long id) {
+        return new CommentDto(id, "Still works", "Oleg", LocalDateTime.of(2023, 1, 25, 12, 0));
+    }
+
+    private CommentView commentView(long id, long total) {
+        return projectionFactory.createProjection(CommentView.class, Map.of(
+                "id", id,
+                "itemId", DRYER_ID,
+                "text", "Hot!",
+                "authorName", "Irina",
+                "created", LocalDateTime.of(2023, 1, 20, 12, 0).plusMinutes(id),
+                "total", total));
+    }
+}
@@ -4,7 +4,9 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemVersionView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -14,6 +16,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 @Transactional
@@ -21,6 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 class ItemRepositoryTest {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final TestEntityManager entityManager;
 
     @Test
     void getByText_shouldSuccess() {
@@ -37,4 +41,30 @@ class ItemRepositoryTest {
         assertEquals(item.getName(), result.get(0).getName());
         assertEquals(item.getAvailable(), result.get(0).getAvailable());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getByText_shouldSkipUnavailableItems() {
+        User userOleg = userRepository.save(new User(null, "Oleg", "oleg@yandex.ru"));
+        itemRepository.save(new Item(null, "Dryer", "For curly hair", false, userOleg, null));
+
+        List<Item> result = itemRepository.findByText("rye", Pageable.unpaged());
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void findVersionById_shouldReflectItemChanges() {
+        User userOleg = entityManager.persist(new User(null, "Oleg", "oleg@yandex.ru"));
+        Item item = entityManager.persist(new Item(null, "Dryer", "For curly hair", true, userOleg, null));
+        entityManager.flush();
+
+        ItemVersionView before = itemRepository.findVersionById(item.getId()).orElseThrow();
+        item.setName("Hair dryer");
+        entityManager.flush();
+        ItemVersionView after = itemRepository.findVersionById(item.getId()).orElseThrow();
+
+        assertEquals(userOleg.getId(), before.getOwnerId());
+        assertEquals(before.getVersion() + 1, after.getVersion());
+        assertTrue(itemRepository.findVersionById(99L).isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Compares infix search through {@link ItemSearchServiceImpl} with the LIKE query of
+ * {@link ItemRepository#findByText}. Seeding a million items takes a while, so the benchmark
+ * only runs with {@code -Dbenchmark=true}; sizes can be overridden with {@code -Dbenchmark.sizes=10000,100000}.
+ */
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ItemSearchBenchmarkTest {
+
+    private static final String[] WORDS = {"дрель", "перфоратор", "отвертка", "молоток", "пила", "лестница",
+            "палатка", "велосипед", "рюкзак", "фен", "гитара", "проектор", "самокат", "удочка", "мангал"};
+    private static final String[] COMMON_FRAGMENTS = {"рел", "ерфорат", "атка", "ипед", "ангал"};
+    private static final String LETTERS = "абвгдежзиклмнопрстуфхцчшэюя";
+    private static final int BATCH = 10_000;
+    private static final int RUNS = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void compareNgramIndexWithLikeQuery() {
+        String sizes = System.getProperty("benchmark.sizes", "10000,100000,1000000");
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1000000, 'Bench', 'bench@yandex.ru')");
+        int seeded = 0;
+        for (int size : Arrays.stream(sizes.split(",")).mapToInt(Integer::parseInt).sorted().toArray()) {
+            seed(seeded, size);
+            seeded = size;
+
+            ItemSearchServiceImpl index = new ItemSearchServiceImpl(itemRepository);
+            index.load();
+
+            String[] rareFragments = rareFragments(size);
+            for (String[] fragments : List.of(COMMON_FRAGMENTS, rareFragments)) {
+                double likeMicros = measure(fragments,
+                        fragment -> itemRepository.findByText(fragment, PageRequest.of(0, 20)));
+                double ngramMicros = measure(fragments, fragment -> index.search(fragment, 0, 20));
+                log.info("items={} fragments={} like={}us ngram={}us", size,
+                        fragments == COMMON_FRAGMENTS ? "common" : "rare", Math.round(likeMicros),
+                        Math.round(ngramMicros));
+            }
+            assertFalse(index.search(COMMON_FRAGMENTS[0], 0, 20).isEmpty());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id = 1000000");
+        jdbcTemplate.update("DELETE FROM users WHERE id = 1000000");
+    }
+
+    private void seed(int from, int to) {
+        Random random = new Random(from);
+        for (int start = from; start < to; start += BATCH) {
+            List<Object[]> rows = new ArrayList<>();
+            for (int id = start; id < Math.min(start + BATCH, to); id++) {
+                String name = WORDS[random.nextInt(WORDS.length)] + " " + randomWord(random);
+                String description = WORDS[random.nextInt(WORDS.length)] + " и " + WORDS[random.nextInt(WORDS.length)];
+                rows.add(new Object[]{1_000_000L + id, name, description, random.nextBoolean()});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, is_available, owner_id) " +
+                    "VALUES (?, ?, ?, ?, 1000000)", rows);
+        }
+    }
+
+    private double measure(String[] fragments, Function<String, List<?>> search) {
+        for (String fragment : fragments) {
+            search.apply(fragment);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            search.apply(fragments[i % fragments.length]);
+        }
+        return (System.nanoTime() - start) / 1000.0 / RUNS;
+    }
+
+    private static String[] rareFragments(int seed) {
+        Random random = new Random(seed);
+        String[] fragments = new String[COMMON_FRAGMENTS.length];
+        for (int i = 0; i < fragments.length; i++) {
+            fragments[i] = randomWord(random).substring(1, 5);
+        }
+        return fragments;
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchServiceImplTest {
+    private final User userOleg = new User(1L, "Oleg", "oleg@yandex.ru");
+    private final Item drill = new Item(1L, "Дрель", "Аккумуляторная дрель", true, userOleg, null);
+    private final Item screwdriver = new Item(2L, "Отвертка", "Подходит вместо дрели", true, userOleg, null);
+    private final Item brokenDrill = new Item(3L, "Дрель", "Сломанная", false, userOleg, null);
+    @Mock
+    private ItemRepository mockItemRepository;
+    @InjectMocks
+    private ItemSearchServiceImpl itemSearchService;
+
+    @BeforeEach
+    void setUp() {
+        itemSearchService.index(drill);
+        itemSearchService.index(screwdriver);
+        itemSearchService.index(brokenDrill);
+    }
+
+    @Test
+    void search_shouldRankNameMatchesFirstAndSkipUnavailable() {
+        List<Long> result = itemSearchService.search("ДРЕЛ", 0, 10);
+
+        assertEquals(List.of(drill.getId(), screwdriver.getId()), result);
+    }
+
+    @Test
+    void search_shouldRequireAllWords() {
+        assertEquals(List.of(drill.getId()), itemSearchService.search("аккумуляторная дрель", 0, 10));
+        assertTrue(itemSearchService.search("аккумуляторная отвертка", 0, 10).isEmpty());
+        assertTrue(itemSearchService.search("  ", 0, 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldReflectUpdatesAndRemoval() {
+        drill.setAvailable(false);
+        itemSearchService.index(drill);
+        itemSearchService.remove(screwdriver.getId());
+
+        assertTrue(itemSearchService.search("дрель", 0, 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldPage() {
+        assertEquals(List.of(screwdriver.getId()), itemSearchService.search("дрел", 1, 1));
+        assertEquals(List.of(drill.getId(), screwdriver.getId()), itemSearchService.search("дрел", 1, 2));
+    }
+
+    @Test
+    void search_shouldMatchInfixFragments() {
+        assertEquals(List.of(drill.getId(), screwdriver.getId()), itemSearchService.search("рел", 0, 10));
+        assertEquals(List.of(screwdriver.getId()), itemSearchService.search("тве", 0, 10));
+        assertEquals(List.of(screwdriver.getId()), itemSearchService.search("ве", 0, 10));
+    }
+}
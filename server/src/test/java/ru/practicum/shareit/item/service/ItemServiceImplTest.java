@@ -5,39 +5,57 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import ru.practicum.shareit.booking.dto.BookingDtoOnlyIdAndBookerId;
+import ru.practicum.shareit.booking.index.BookingIndexService;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingPointer;
+import ru.practicum.shareit.booking.index.BookingPointerService;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.CommentAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.PreconditionFailedException;
 import ru.practicum.shareit.item.Status;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.CommentSummaryCache;
+import ru.practicum.shareit.item.comment.CommentView;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoConverter;
 import ru.practicum.shareit.item.dto.ItemDtoInput;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookingAndComments;
+import ru.practicum.shareit.item.dto.ItemVersionView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.stream.ItemRequestStreamService;
+import ru.practicum.shareit.request.service.ItemRequestFeed;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+import ru.practicum.shareit.util.ETags;
+import ru.practicum.shareit.util.PageCursor;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.lenient;
 
 @ExtendWith(MockitoExtension.class)
 class ItemServiceImplTest {
-    private final Set<Long> itemIds = new HashSet<>(Arrays.asList(6L, 7L));
     private final User userOleg = new User(1L, "Oleg", "oleg@yandex.ru");
     private final UserDto userDtoOleg = new UserDto(userOleg.getId(), userOleg.getName(), userOleg.getEmail());
     private final User userIrina = new User(2L, "Irina", "irina@yandex.ru");
@@ -65,14 +83,14 @@ class ItemServiceImplTest {
             nextBooking.getId(), nextBooking.getBooker().getId());
     private final ItemDtoWithBookingAndComments dryerDtoWithBookingsAndComments = new ItemDtoWithBookingAndComments(
             dryer.getId(), dryer.getName(), dryer.getDescription(),
-            dryer.getAvailable(), lastBookingShort, nextBookingShort, new ArrayList<>()
+            dryer.getAvailable(), lastBookingShort, nextBookingShort, new ArrayList<>(), 0L
     );
     private final Comment comment = new Comment(8L, "Amazing!", dryer, userOleg,
             LocalDateTime.of(2023, 1, 24, 12, 10));
     private final CommentDto commentDto = new CommentDto(comment.getId(),
             comment.getText(), comment.getAuthor().getName(), comment.getCreated());
 
-    private final LocalDateTime date = LocalDateTime.now();
+    private final SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
     @Mock
     private ItemRepository mockItemRepository;
     @Mock
@@ -83,6 +101,20 @@ class ItemServiceImplTest {
     private CommentRepository mockCommentRepository;
     @Mock
     private ItemRequestRepository mockItemRequestRepository;
+    @Mock
+    private ItemSearchService mockItemSearchService;
+    @Mock
+    private BookingIndexService mockBookingIndexService;
+    @Mock
+    private BookingPointerService mockBookingPointerService;
+    @Spy
+    private UserCache userCache = new UserCache(100, Duration.ofMinutes(1));
+    @Spy
+    private CommentSummaryCache commentSummaryCache = new CommentSummaryCache(100, Duration.ofMinutes(1), 10);
+    @Mock
+    private ItemRequestStreamService mockItemRequestStreamService;
+    @Spy
+    private ItemRequestFeed itemRequestFeed = new ItemRequestFeed(100, 100, Duration.ofMinutes(1));
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -100,6 +132,12 @@ class ItemServiceImplTest {
         ItemDto actual = itemService.create(userOleg.getId(), dryerDtoInput);
 
         assertEquals(dryerDto, actual);
+        Mockito
+                .verify(itemRequestFeed).addItem(userIrina.getId(), ItemDtoConverter.toDtoForRequest(dryer));
+        Mockito
+                .verify(mockItemRequestStreamService).publishItem(ItemDtoConverter.toDtoForRequest(dryer));
+        Mockito
+                .verify(mockItemRequestRepository).incrementVersion(request.getId());
     }
 
     @Test
@@ -135,15 +173,9 @@ class ItemServiceImplTest {
                 .when(mockUserRepository.findById(userIrina.getId()))
                 .thenReturn(Optional.of(userIrina));
         Mockito
-                .when(mockBookingRepository.findFirstByItem_IdAndStartIsLessThanEqualOrderByEndAsc(
-                        eq(dryer.getId()),
-                        any(LocalDateTime.class)))
-                .thenReturn(Optional.of(lastBooking));
-        Mockito
-                .when(mockBookingRepository.findFirstByItem_IdAndStartAfterOrderByEndAsc(
-                        eq(dryer.getId()),
-                        any(LocalDateTime.class)))
-                .thenReturn(Optional.of(nextBooking));
+                .when(mockBookingPointerService.getAll(Set.of(dryer.getId())))
+                .thenReturn(Map.of(dryer.getId(), new BookingPointer(interval(lastBooking), interval(nextBooking),
+                        nextBooking.getStart())));
 
         ItemDtoWithBookingAndComments actual = itemService.getById(
                 userIrina.getId(), dryer.getId());
@@ -182,7 +214,7 @@ class ItemServiceImplTest {
                 dryer.getName(),
                 dryer.getDescription(),
                 dryer.getAvailable(),
-                lastBookingShort, nextBookingShort, new ArrayList<>()
+                lastBookingShort, nextBookingShort, new ArrayList<>(), 0L
         );
         lenient()
                 .when(mockUserRepository.findById(userIrina.getId()))
@@ -190,17 +222,11 @@ class ItemServiceImplTest {
         Mockito
                 .when(mockItemRepository.findById(dryer.getId())).thenReturn(Optional.of(dryer));
         Mockito
-                .when(mockBookingRepository.findFirstByItem_IdAndStartIsLessThanEqualOrderByEndAsc(
-                        eq(dryer.getId()),
-                        any(LocalDateTime.class)))
-                .thenReturn(Optional.of(lastBooking));
-        Mockito
-                .when(mockBookingRepository.findFirstByItem_IdAndStartAfterOrderByEndAsc(
-                        eq(dryer.getId()),
-                        any(LocalDateTime.class)))
-                .thenReturn(Optional.of(nextBooking));
+                .when(mockBookingPointerService.getAll(Set.of(dryer.getId())))
+                .thenReturn(Map.of(dryer.getId(), new BookingPointer(interval(lastBooking), interval(nextBooking),
+                        nextBooking.getStart())));
         Mockito
-                .when(mockCommentRepository.findByItem_Id(dryer.getId()))
+                .when(mockCommentRepository.findLatestByItem_IdIn(eq(Set.of(dryer.getId())), anyInt()))
                 .thenReturn(Collections.emptyList());
 
         ItemDtoWithBookingAndComments actual = itemService.getById(
@@ -219,7 +245,8 @@ class ItemServiceImplTest {
                 dryer.getAvailable(),
                 null,
                 null,
-                new ArrayList<>()
+                new ArrayList<>(),
+                0L
         );
         lenient()
                 .when(mockUserRepository.findById(userOleg.getId()))
@@ -228,7 +255,7 @@ class ItemServiceImplTest {
                 .when(mockItemRepository.findById(dryer.getId()))
                 .thenReturn(Optional.of(dryer));
         Mockito
-                .when(mockCommentRepository.findByItem_Id(dryer.getId()))
+                .when(mockCommentRepository.findLatestByItem_IdIn(eq(Set.of(dryer.getId())), anyInt()))
                 .thenReturn(Collections.emptyList());
         ItemDtoWithBookingAndComments actual = itemService.getById(
                 userOleg.getId(), dryer.getId()
@@ -245,9 +272,9 @@ class ItemServiceImplTest {
         Mockito
                 .when(mockUserRepository.findById(userIrina.getId()))
                 .thenReturn(Optional.of(userIrina));
-        lenient()
-                .when(mockBookingRepository.findByItem_IdInAndStartIsLessThanEqualOrderByEndDesc(itemIds, date))
-                .thenReturn(List.of(lastBooking, nextBooking));
+        Mockito
+                .when(mockBookingPointerService.getAll(Set.of(dryer.getId())))
+                .thenReturn(Map.of(dryer.getId(), new BookingPointer(null, null, null)));
         ItemDtoWithBookingAndComments expected = new ItemDtoWithBookingAndComments(
                 dryer.getId(),
                 dryer.getName(),
@@ -255,7 +282,8 @@ class ItemServiceImplTest {
                 dryer.getAvailable(),
                 null,
                 null,
-                null
+                List.of(),
+                0L
         );
         List<ItemDtoWithBookingAndComments> actual = itemService.getAll(userIrina.getId(), 0, 1);
 
@@ -270,12 +298,12 @@ class ItemServiceImplTest {
         Mockito
                 .when(mockUserRepository.findById(userIrina.getId()))
                 .thenReturn(Optional.of(userIrina));
-        lenient()
-                .when(mockBookingRepository.findByItem_IdInAndStartIsLessThanEqualOrderByEndDesc(itemIds, date))
-                .thenReturn(List.of(lastBooking, nextBooking));
         Mockito
-                .when(mockCommentRepository.findByItem_IdIn(anySet()))
-                .thenReturn(List.of(comment));
+                .when(mockCommentRepository.findLatestByItem_IdIn(eq(Set.of(dryer.getId())), anyInt()))
+                .thenReturn(List.of(commentView(3L)));
+        Mockito
+                .when(mockBookingPointerService.getAll(Set.of(dryer.getId())))
+                .thenReturn(Map.of(dryer.getId(), new BookingPointer(null, null, null)));
         ItemDtoWithBookingAndComments expected = new ItemDtoWithBookingAndComments(
                 dryer.getId(),
                 dryer.getName(),
@@ -283,7 +311,8 @@ class ItemServiceImplTest {
                 dryer.getAvailable(),
                 null,
                 null,
-                List.of(commentDto)
+                List.of(commentDto),
+                3L
         );
         List<ItemDtoWithBookingAndComments> actual = itemService.getAll(userIrina.getId(), 0, 1);
 
@@ -298,26 +327,22 @@ class ItemServiceImplTest {
         Mockito
                 .when(mockUserRepository.findById(userIrina.getId()))
                 .thenReturn(Optional.of(userIrina));
-        lenient()
-                .when(mockBookingRepository.findByItem_IdInAndStartIsLessThanEqualOrderByEndDesc(eq(itemIds), any(LocalDateTime.class)))
-                .thenReturn(List.of(lastBooking, nextBooking));
         Mockito
-                .when(mockCommentRepository.findByItem_IdIn(anySet()))
-                .thenReturn(List.of(comment));
-        lenient()
-                .when(mockBookingRepository.findByItem_IdInAndStartIsLessThanEqualOrderByEndDesc(eq(itemIds), any(LocalDateTime.class)))
-                .thenReturn(List.of(lastBooking));
-        lenient()
-                .when(mockBookingRepository.findByItem_IdInAndStartAfterOrderByEndAsc(eq(itemIds), any(LocalDateTime.class)))
-                .thenReturn(List.of(nextBooking));
+                .when(mockCommentRepository.findLatestByItem_IdIn(eq(Set.of(dryer.getId())), anyInt()))
+                .thenReturn(List.of(commentView(1L)));
+        Mockito
+                .when(mockBookingPointerService.getAll(Set.of(dryer.getId())))
+                .thenReturn(Map.of(dryer.getId(), new BookingPointer(interval(lastBooking), interval(nextBooking),
+                        nextBooking.getStart())));
         ItemDtoWithBookingAndComments expected = new ItemDtoWithBookingAndComments(
                 dryer.getId(),
                 dryer.getName(),
                 dryer.getDescription(),
                 dryer.getAvailable(),
-                null,
-                null,
-                List.of(commentDto)
+                lastBookingShort,
+                nextBookingShort,
+                List.of(commentDto),
+                1L
         );
         List<ItemDtoWithBookingAndComments> actual = itemService.getAll(userIrina.getId(), 0, 1);
 
@@ -348,7 +373,7 @@ class ItemServiceImplTest {
         Mockito
                 .when(mockUserRepository.findById(userOleg.getId()))
                 .thenReturn(Optional.of(userOleg));
-        ItemDto actual = itemService.update(userOleg.getId(), item.getId(), itemUpdate);
+        ItemDto actual = itemService.update(userOleg.getId(), item.getId(), itemUpdate, null);
 
         assertEquals(expected, actual);
     }
@@ -377,11 +402,58 @@ class ItemServiceImplTest {
         Mockito
                 .when(mockUserRepository.findById(userOleg.getId()))
                 .thenReturn(Optional.of(userOleg));
-        ItemDto actual = itemService.update(userOleg.getId(), item.getId(), itemUpdate);
+        ItemDto actual = itemService.update(userOleg.getId(), item.getId(), itemUpdate, null);
 
         assertEquals(expected, actual);
     }
 
+    @Test
+    void update_shouldThrowExceptionIfETagNotMatch() {
+        Item item = new Item(5L, "Bicycle", "With one wheel",
+                true, userOleg, null);
+        Mockito
+                .when(mockItemRepository.findById(item.getId()))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(mockUserRepository.findById(userOleg.getId()))
+                .thenReturn(Optional.of(userOleg));
+        Mockito
+                .when(mockItemRepository.findVersionById(item.getId()))
+                .thenReturn(Optional.of(itemVersionView(userOleg.getId(), 2L)));
+        Mockito
+                .when(mockBookingPointerService.getAll(Set.of(item.getId())))
+                .thenReturn(Map.of(item.getId(), new BookingPointer(null, null, null)));
+        String staleETag = ETags.of(true, 1L, "0:", null, null);
+
+        assertThrows(
+                PreconditionFailedException.class,
+                () -> itemService.update(userOleg.getId(), item.getId(),
+                        new ItemDto(item.getId(), "Tandem", null, null, null, null), staleETag)
+        );
+        assertEquals("Bicycle", item.getName());
+    }
+
+    @Test
+    void getETag_shouldChangeWithBookingPointerOnlyForOwner() {
+        Mockito
+                .when(mockUserRepository.findById(anyLong()))
+                .thenReturn(Optional.of(userOleg));
+        Mockito
+                .when(mockItemRepository.findVersionById(dryer.getId()))
+                .thenReturn(Optional.of(itemVersionView(userIrina.getId(), 2L)));
+        Mockito
+                .when(mockBookingPointerService.getAll(Set.of(dryer.getId())))
+                .thenReturn(Map.of(dryer.getId(), new BookingPointer(null, interval(nextBooking),
+                        nextBooking.getStart())))
+                .thenReturn(Map.of(dryer.getId(), new BookingPointer(null, null, null)));
+
+        String ownerETag = itemService.getETag(userIrina.getId(), dryer.getId());
+        String bookerETag = itemService.getETag(userOleg.getId(), dryer.getId());
+
+        assertNotEquals(ownerETag, itemService.getETag(userIrina.getId(), dryer.getId()));
+        assertEquals(bookerETag, itemService.getETag(userOleg.getId(), dryer.getId()));
+    }
+
     @Test
     void update_shouldThrowExceptionIfUserIsNotOwner() {
         lenient()
@@ -393,7 +465,8 @@ class ItemServiceImplTest {
                 () -> itemService.update(
                         userOleg.getId(),
                         dryer.getId(),
-                        new ItemDto(userIrina.getId(), null, null, null, null, null)
+                        new ItemDto(userIrina.getId(), null, null, null, null, null),
+                        null
                 )
         );
     }
@@ -410,7 +483,8 @@ class ItemServiceImplTest {
                         userIrina.getId(),
                         99L,
                         new ItemDto(userIrina.getId(), null, null,
-                                null, null, null)
+                                null, null, null),
+                        null
                 )
         );
     }
@@ -429,6 +503,12 @@ class ItemServiceImplTest {
         Mockito
                 .verify(mockItemRepository, Mockito.times(1))
                 .deleteById(apple.getId());
+        Mockito
+                .verify(mockBookingIndexService, Mockito.times(1))
+                .removeItem(apple.getId());
+        Mockito
+                .verify(mockBookingPointerService, Mockito.times(1))
+                .remove(apple.getId());
     }
 
     @Test
@@ -461,12 +541,21 @@ class ItemServiceImplTest {
         Mockito
                 .verify(mockItemRepository, Mockito.times(1))
                 .deleteAll();
+        Mockito
+                .verify(mockBookingIndexService, Mockito.times(1))
+                .clear();
+        Mockito
+                .verify(mockBookingPointerService, Mockito.times(1))
+                .clear();
     }
 
     @Test
     void getByText_ShouldSuccess() {
         Mockito
-                .when(mockItemRepository.findByText("Dryer", PageRequest.of(0, 1)))
+                .when(mockItemSearchService.search("Dryer", 0, 1))
+                .thenReturn(List.of(dryer.getId()));
+        Mockito
+                .when(mockItemRepository.findAllById(List.of(dryer.getId())))
                 .thenReturn(List.of(dryer));
         List<ItemDto> actual = itemService.getByText("Dryer", 0, 1);
 
@@ -559,4 +648,105 @@ class ItemServiceImplTest {
                 () -> itemService.createComment(userOleg.getId(), dryer.getId(), commentDto)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void createComment_shouldAddCommentToCachedSummary() {
+        Mockito
+                .when(mockItemRepository.findById(dryer.getId()))
+                .thenReturn(Optional.of(dryer));
+        Mockito
+                .when(mockUserRepository.findById(userOleg.getId()))
+                .thenReturn(Optional.of(userOleg));
+        Mockito
+                .when(mockCommentRepository.findLatestByItem_IdIn(eq(Set.of(dryer.getId())), anyInt()))
+                .thenReturn(List.of(commentView(1L)));
+        Mockito
+                .when(mockBookingRepository.findBookingsByBooker_IdAndItem_IdAndEndIsLessThanEqual(
+                                eq(userOleg.getId()),
+                                eq(dryer.getId()),
+                                any(LocalDateTime.class)
+                        )
+                )
+                .thenReturn(List.of(lastBooking));
+        itemService.getById(userOleg.getId(), dryer.getId());
+
+        CommentDto newComment = itemService.createComment(userOleg.getId(), dryer.getId(),
+                new CommentDto(9L, "Still works", null, null));
+        ItemDtoWithBookingAndComments actual = itemService.getById(userOleg.getId(), dryer.getId());
+
+        assertEquals(2L, actual.getCommentsCount());
+        assertEquals(List.of(newComment, commentDto), actual.getComments());
+        Mockito
+                .verify(mockCommentRepository, Mockito.times(1)).findLatestByItem_IdIn(any(), anyInt());
+    }
+
+    @Test
+    void getComments_shouldReturnFirstPage() {
+        Mockito
+                .when(mockUserRepository.findById(userOleg.getId()))
+                .thenReturn(Optional.of(userOleg));
+        Mockito
+                .when(mockItemRepository.existsById(dryer.getId()))
+                .thenReturn(true);
+        Mockito
+                .when(mockCommentRepository.findPageByItem_Id(dryer.getId(), PageRequest.of(0, 1)))
+                .thenReturn(List.of(commentDto));
+
+        List<CommentDto> actual = itemService.getComments(userOleg.getId(), dryer.getId(), null, 1);
+
+        assertEquals(List.of(commentDto), actual);
+    }
+
+    @Test
+    void getComments_shouldReturnPageAfterCursor() {
+        LocalDateTime created = comment.getCreated().plusHours(1);
+        Mockito
+                .when(mockUserRepository.findById(userOleg.getId()))
+                .thenReturn(Optional.of(userOleg));
+        Mockito
+                .when(mockItemRepository.existsById(dryer.getId()))
+                .thenReturn(true);
+        Mockito
+                .when(mockCommentRepository.findPageByItem_IdAfter(dryer.getId(), created, 9L, PageRequest.of(0, 1)))
+                .thenReturn(List.of(commentDto));
+
+        List<CommentDto> actual = itemService.getComments(userOleg.getId(), dryer.getId(),
+                PageCursor.encode(created, 9L), 1);
+
+        assertEquals(List.of(commentDto), actual);
+    }
+
+    @Test
+    void getComments_shouldThrowExceptionIfItemNotExist() {
+        Mockito
+                .when(mockUserRepository.findById(userOleg.getId()))
+                .thenReturn(Optional.of(userOleg));
+        Mockito
+                .when(mockItemRepository.existsById(99L))
+                .thenReturn(false);
+
+        assertThrows(NotFoundException.class,
+                () -> itemService.getComments(userOleg.getId(), 99L, null, 10));
+    }
+
+    private CommentView commentView(long total) {
+        return projectionFactory.createProjection(CommentView.class, Map.of(
+                "id", comment.getId(),
+                "itemId", dryer.getId(),
+                "text", comment.getText(),
+                "authorName", comment.getAuthor().getName(),
+                "created", comment.getCreated(),
+                "total", total));
+    }
+
+    private ItemVersionView itemVersionView(long ownerId, long version) {
+        return projectionFactory.createProjection(ItemVersionView.class, Map.of(
+                "version", version,
+                "ownerId", ownerId));
+    }
+
+    private BookingInterval interval(Booking booking) {
+        return new BookingInterval(booking.getId(), booking.getBooker().getId(), booking.getStart(),
+                booking.getEnd());
+    }
+}
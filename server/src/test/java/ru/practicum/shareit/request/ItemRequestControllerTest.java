@@ -8,11 +8,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoForRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDtoInput;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.request.stream.ItemRequestStreamService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoShort;
 
@@ -20,10 +23,12 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -65,6 +70,8 @@ class ItemRequestControllerTest {
     private ObjectMapper mapper;
     @MockBean
     private ItemRequestService itemRequestService;
+    @MockBean
+    private ItemRequestStreamService itemRequestStreamService;
     @Autowired
     private MockMvc mvc;
 
@@ -196,4 +203,28 @@ class ItemRequestControllerTest {
         Mockito.verify(itemRequestService, Mockito.times(1))
                 .getAllAnotherUsers(1L, 0, 1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void stream_shouldSendEventsOfSubscription() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        Mockito
+                .when(itemRequestStreamService.subscribe(anyLong(), any()))
+                .thenReturn(emitter);
+
+        MvcResult result = mvc.perform(
+                        get("/requests/stream")
+                                .header("X-Sharer-User-Id", userIrina.getId())
+                                .header("Last-Event-ID", 7L)
+                                .accept(MediaType.TEXT_EVENT_STREAM)
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().id("8").name("item").data(dryerForRequest, MediaType.APPLICATION_JSON));
+        emitter.complete();
+
+        assertThat(result.getResponse().getContentAsString())
+                .startsWith("id:8\nevent:item\ndata:{\"id\":3,");
+        Mockito.verify(itemRequestStreamService, Mockito.times(1))
+                .subscribe(2L, 7L);
+    }
+}
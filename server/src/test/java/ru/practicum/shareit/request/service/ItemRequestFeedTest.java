@@ -0,0 +1,147 @@
+package ru.practicum.shareit.request.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDtoForRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
+import ru.practicum.shareit.user.dto.UserDtoShort;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemRequestFeedTest {
+    private static final long OLEG_ID = 1L;
+    private static final long IRINA_ID = 2L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 1, 20, 12, 0);
+
+    private final List<ItemRequestDtoOutput> rows = new ArrayList<>();
+    private final List<Integer> loads = new ArrayList<>();
+    private final IntFunction<List<ItemRequestDtoOutput>> loader = limit -> {
+        loads.add(limit);
+        return rows.subList(0, Math.min(limit, rows.size()));
+    };
+    private final ItemRequestFeed itemRequestFeed = new ItemRequestFeed(3, 100, Duration.ofMinutes(1));
+
+    @Test
+    void getRecent_shouldSkipOwnRequestsAndLoadOnce() {
+        rows.addAll(List.of(request(4L, IRINA_ID, 0), request(3L, OLEG_ID, 1), request(2L, IRINA_ID, 2)));
+
+        Optional<List<ItemRequestDtoOutput>> first = itemRequestFeed.getRecent(OLEG_ID, 0, 1, loader);
+        Optional<List<ItemRequestDtoOutput>> second = itemRequestFeed.getRecent(OLEG_ID, 1, 1, loader);
+
+        assertEquals(List.of(4L), ids(first.orElseThrow()));
+        assertEquals(List.of(2L), ids(second.orElseThrow()));
+        assertEquals(List.of(4), loads);
+    }
+
+    @Test
+    void getRecent_shouldReturnPageHoldingFrom() {
+        rows.addAll(List.of(request(4L, IRINA_ID, 0), request(3L, IRINA_ID, 1), request(2L, IRINA_ID, 2)));
+
+        assertEquals(List.of(2L), ids(itemRequestFeed.getRecent(OLEG_ID, 3, 2, loader).orElseThrow()));
+    }
+
+    @Test
+    void getRecent_shouldReturnEmptyOptionalPastTruncatedFeed() {
+        for (long id = 5; id > 0; id--) {
+            rows.add(request(id, IRINA_ID, 5 - id));
+        }
+
+        assertEquals(List.of(5L, 4L), ids(itemRequestFeed.getRecent(OLEG_ID, 0, 2, loader).orElseThrow()));
+        assertTrue(itemRequestFeed.getRecent(OLEG_ID, 2, 2, loader).isEmpty());
+        assertTrue(itemRequestFeed.getRecentAfter(OLEG_ID, NOW.minusMinutes(2), 3L, 2, loader).isEmpty());
+    }
+
+    @Test
+    void getRecentAfter_shouldStartAfterCursor() {
+        rows.addAll(List.of(request(4L, IRINA_ID, 0), request(3L, IRINA_ID, 1), request(2L, IRINA_ID, 1)));
+
+        assertEquals(List.of(2L), ids(itemRequestFeed.getRecentAfter(OLEG_ID, NOW.minusMinutes(1), 3L, 2, loader)
+                .orElseThrow()));
+    }
+
+    @Test
+    void addRequest_shouldInsertByCreatedAndTruncateFeed() {
+        rows.addAll(List.of(request(4L, IRINA_ID, 0), request(3L, IRINA_ID, 2), request(2L, IRINA_ID, 4)));
+        itemRequestFeed.getRecent(OLEG_ID, 0, 1, loader);
+
+        itemRequestFeed.addRequest(request(7L, IRINA_ID, 1));
+
+        assertEquals(List.of(4L, 7L, 3L), ids(itemRequestFeed.getRecent(OLEG_ID, 0, 3, loader).orElseThrow()));
+        assertTrue(itemRequestFeed.getRecent(OLEG_ID, 3, 3, loader).isEmpty());
+        assertEquals(1, loads.size());
+    }
+
+    @Test
+    void getRecent_shouldServeChangesCommittedWhileLoading() {
+        rows.add(request(4L, IRINA_ID, 1));
+        IntFunction<List<ItemRequestDtoOutput>> racingLoader = limit -> {
+            List<ItemRequestDtoOutput> loaded = loader.apply(limit);
+            itemRequestFeed.addRequest(request(7L, IRINA_ID, 0));
+            itemRequestFeed.addItem(IRINA_ID, item(3L, 4L));
+            return loaded;
+        };
+
+        List<ItemRequestDtoOutput> page = itemRequestFeed.getRecent(OLEG_ID, 0, 2, racingLoader).orElseThrow();
+
+        assertEquals(List.of(7L, 4L), ids(page));
+        assertEquals(List.of(item(3L, 4L)), page.get(1).getItems());
+    }
+
+    @Test
+    void addItem_shouldAttachItemOnceToCachedRequests() {
+        rows.add(request(4L, IRINA_ID, 0));
+        itemRequestFeed.getRecent(OLEG_ID, 0, 1, loader);
+        itemRequestFeed.getByRequestor(IRINA_ID, requestorId -> List.of(rows.get(0)));
+
+        itemRequestFeed.addItem(IRINA_ID, item(3L, 4L));
+        itemRequestFeed.addItem(IRINA_ID, item(3L, 4L));
+
+        assertEquals(List.of(item(3L, 4L)),
+                itemRequestFeed.getRecent(OLEG_ID, 0, 1, loader).orElseThrow().get(0).getItems());
+        assertEquals(List.of(item(3L, 4L)),
+                itemRequestFeed.getByRequestor(IRINA_ID, requestorId -> List.of()).get(0).getItems());
+    }
+
+    @Test
+    void removeItem_shouldDetachItem() {
+        rows.add(request(4L, IRINA_ID, 0));
+        itemRequestFeed.getRecent(OLEG_ID, 0, 1, loader);
+        itemRequestFeed.addItem(IRINA_ID, item(3L, 4L));
+
+        itemRequestFeed.removeItem(IRINA_ID, 4L, 3L);
+
+        assertEquals(List.of(), itemRequestFeed.getRecent(OLEG_ID, 0, 1, loader).orElseThrow().get(0).getItems());
+    }
+
+    @Test
+    void evictAll_shouldLoadFeedAgain() {
+        rows.add(request(4L, IRINA_ID, 0));
+        itemRequestFeed.getRecent(OLEG_ID, 0, 1, loader);
+
+        itemRequestFeed.evictAll();
+        itemRequestFeed.getRecent(OLEG_ID, 0, 1, loader);
+
+        assertEquals(2, loads.size());
+    }
+
+    private List<Long> ids(List<ItemRequestDtoOutput> requests) {
+        return requests.stream().map(ItemRequestDtoOutput::getId).collect(Collectors.toList());
+    }
+
+    private ItemRequestDtoOutput request(long id, long requestorId, long minutesAgo) {
+        return new ItemRequestDtoOutput(id, "Need it", new UserDtoShort(requestorId, "User " + requestorId),
+                NOW.minusMinutes(minutesAgo), List.of());
+    }
+
+    private ItemDtoForRequest item(long id, long requestId) {
+        return new ItemDtoForRequest(id, "Dryer", "For curly hair", true, requestId);
+    }
+}
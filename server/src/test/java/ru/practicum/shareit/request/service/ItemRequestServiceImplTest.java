@@ -5,9 +5,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDtoForRequest;
 import ru.practicum.shareit.item.model.Item;
@@ -16,15 +16,19 @@ import ru.practicum.shareit.request.dto.ItemRequestDtoInput;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.stream.ItemRequestStreamService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoShort;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -86,6 +90,12 @@ class ItemRequestServiceImplTest {
     private ItemRepository mockItemRepository;
     @Mock
     private UserRepository mockUserRepository;
+    @Spy
+    private UserCache userCache = new UserCache(100, Duration.ofMinutes(1));
+    @Mock
+    private ItemRequestStreamService mockItemRequestStreamService;
+    @Spy
+    private ItemRequestFeed itemRequestFeed = new ItemRequestFeed(2, 100, Duration.ofMinutes(1));
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
 
@@ -100,6 +110,10 @@ class ItemRequestServiceImplTest {
         ItemRequestDtoOutput actual = itemRequestService.create(userIrina.getId(), itemRequestDtoInput);
 
         assertEquals(requestDtoOutputWithoutItems, actual);
+        Mockito
+                .verify(itemRequestFeed).addRequest(requestDtoOutputWithoutItems);
+        Mockito
+                .verify(mockItemRequestStreamService).publishRequest(requestDtoOutputWithoutItems);
     }
 
     @Test
@@ -141,21 +155,60 @@ class ItemRequestServiceImplTest {
     @Test
     void getAllAnotherUsers_shouldSuccess() {
         Mockito
-                .when(mockRequestRepository.findByRequestor_IdNot(
-                                userIrina.getId(),
-                                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "created"))
-                        )
-                )
+                .when(mockRequestRepository.findRecent(PageRequest.of(0, 3)))
                 .thenReturn(List.of(request));
         Mockito
                 .when(mockItemRepository.findByRequest_IdIn(anyList()))
                 .thenReturn(List.of(dryer));
-        List<ItemRequestDtoOutput> actual = itemRequestService.getAllAnotherUsers(userIrina.getId(), 0, 1);
+        List<ItemRequestDtoOutput> actual = itemRequestService.getAllAnotherUsers(userOleg.getId(), 0, 1);
 
         assertThat(actual).isNotEmpty();
         assertEquals(List.of(requestDtoOutput), actual);
     }
 
+    @Test
+    void getAllAnotherUsers_shouldServeFromFeedWithItemAddedLater() {
+        Mockito
+                .when(mockRequestRepository.findRecent(PageRequest.of(0, 3)))
+                .thenReturn(List.of(request));
+        itemRequestService.getAllAnotherUsers(userOleg.getId(), 0, 1);
+        itemRequestFeed.addItem(userIrina.getId(), itemDtoForRequest);
+        List<ItemRequestDtoOutput> actual = itemRequestService.getAllAnotherUsers(userOleg.getId(), 0, 1);
+
+        assertEquals(List.of(requestDtoOutput), actual);
+        Mockito
+                .verify(mockRequestRepository, Mockito.times(1)).findRecent(any());
+    }
+
+    @Test
+    void getAllAnotherUsers_shouldReadPagePastFeedFromRepository() {
+        ItemRequest older = new ItemRequest(5L, "And this one", userIrina, request.getCreated().minusDays(1));
+        ItemRequest oldest = new ItemRequest(6L, "And that one", userIrina, request.getCreated().minusDays(2));
+        Mockito
+                .when(mockRequestRepository.findRecent(PageRequest.of(0, 3)))
+                .thenReturn(List.of(request, older, oldest));
+        Mockito
+                .when(mockRequestRepository.findByRequestor_IdNot(
+                                userOleg.getId(),
+                                PageRequest.of(1, 2)
+                        )
+                )
+                .thenReturn(List.of(oldest));
+        List<ItemRequestDtoOutput> actual = itemRequestService.getAllAnotherUsers(userOleg.getId(), 2, 2);
+
+        assertEquals(List.of(oldest.getId()), actual.stream().map(ItemRequestDtoOutput::getId).collect(toList()));
+    }
+
+    @Test
+    void getAllAnotherUsers_shouldSkipOwnRequests() {
+        Mockito
+                .when(mockRequestRepository.findRecent(PageRequest.of(0, 3)))
+                .thenReturn(List.of(request));
+        List<ItemRequestDtoOutput> actual = itemRequestService.getAllAnotherUsers(userIrina.getId(), 0, 1);
+
+        assertThat(actual).isEmpty();
+    }
+
     @Test
     void getById_shouldSuccess() {
         Mockito
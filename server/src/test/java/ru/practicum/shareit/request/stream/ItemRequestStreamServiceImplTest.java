@@ -0,0 +1,159 @@
+package ru.practicum.shareit.request.stream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.item.dto.ItemDtoForRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
+import ru.practicum.shareit.user.dto.UserDtoShort;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+class ItemRequestStreamServiceImplTest {
+    private static final long OLEG_ID = 1L;
+    private static final long IRINA_ID = 2L;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ItemRequestDtoOutput request = new ItemRequestDtoOutput(4L, "I want it!",
+            new UserDtoShort(IRINA_ID, "Irina"), LocalDateTime.of(2023, 1, 20, 12, 0), List.of());
+    @Mock
+    private UserRepository mockUserRepository;
+    private ItemRequestStreamServiceImpl itemRequestStreamService;
+
+    @BeforeEach
+    void setUp() {
+        itemRequestStreamService = new ItemRequestStreamServiceImpl(mockUserRepository,
+                new UserCache(100, Duration.ofMinutes(1)), registry, 2, 3, 2, Duration.ofMinutes(1),
+                Duration.ofMinutes(1));
+        itemRequestStreamService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRequestStreamService.stop();
+    }
+
+    @Test
+    void publishRequest_shouldSkipRequestor() throws InterruptedException {
+        RecordingEmitter oleg = subscribe(OLEG_ID, null);
+        RecordingEmitter irina = subscribe(IRINA_ID, null);
+
+        itemRequestStreamService.publishRequest(request);
+
+        assertThat(oleg.next()).contains("event:request\ndata:");
+        assertNull(irina.events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void publishItem_shouldReachEveryone() throws InterruptedException {
+        RecordingEmitter oleg = subscribe(OLEG_ID, null);
+        RecordingEmitter irina = subscribe(IRINA_ID, null);
+
+        itemRequestStreamService.publishItem(item(3L));
+
+        assertThat(oleg.next()).contains("event:item\ndata:");
+        assertThat(irina.next()).contains("event:item\ndata:");
+    }
+
+    @Test
+    void subscribe_shouldReplayEventsAfterLastEventId() throws InterruptedException {
+        RecordingEmitter oleg = subscribe(OLEG_ID, null);
+        itemRequestStreamService.publishItem(item(3L));
+        itemRequestStreamService.publishItem(item(5L));
+        long firstId = idOf(oleg.next());
+        long secondId = idOf(oleg.next());
+
+        RecordingEmitter resumed = subscribe(OLEG_ID, firstId);
+
+        assertEquals(secondId, idOf(resumed.next()));
+        assertNull(resumed.events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void subscribe_shouldResetIfEventsAfterLastEventIdAreGone() throws InterruptedException {
+        RecordingEmitter resumed = subscribe(OLEG_ID, 1L);
+
+        assertThat(resumed.next()).contains("event:reset");
+    }
+
+    @Test
+    void publish_shouldDisconnectSubscriberFallingBehind() throws InterruptedException {
+        RecordingEmitter oleg = subscribe(OLEG_ID, null);
+        oleg.gate = new CountDownLatch(1);
+
+        itemRequestStreamService.publishItem(item(1L));
+        assertTrue(oleg.sending.await(1, TimeUnit.SECONDS));
+        for (long id = 2; id <= 4; id++) {
+            itemRequestStreamService.publishItem(item(id));
+        }
+        oleg.gate.countDown();
+
+        assertTrue(oleg.completed.await(1, TimeUnit.SECONDS));
+        assertEquals(1, oleg.events.size());
+        assertEquals(1.0, registry.get("shareit.request.stream.overflows").functionCounter().count());
+    }
+
+    private RecordingEmitter subscribe(long userId, Long lastEventId) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        itemRequestStreamService.subscribe(userId, lastEventId, emitter);
+        return emitter;
+    }
+
+    private ItemDtoForRequest item(long id) {
+        return new ItemDtoForRequest(id, "Dryer", "For curly hair", true, request.getId());
+    }
+
+    private long idOf(String event) {
+        return Long.parseLong(event.substring("id:".length(), event.indexOf('\n')));
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            events.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+
+        private String next() throws InterruptedException {
+            return events.poll(1, TimeUnit.SECONDS);
+        }
+    }
+}
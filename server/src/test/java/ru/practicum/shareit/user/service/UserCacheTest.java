@@ -0,0 +1,72 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserCacheTest {
+    private final User userOleg = new User(1L, "Oleg", "oleg@yandex.ru");
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Long, Optional<User>> loader = id -> {
+        loads.incrementAndGet();
+        return id.equals(userOleg.getId()) ? Optional.of(userOleg) : Optional.empty();
+    };
+    private final UserCache userCache = new UserCache(100, Duration.ofMinutes(1));
+
+    @Test
+    void checkExists_shouldLoadUserOnce() {
+        userCache.checkExists(userOleg.getId(), loader);
+        userCache.checkExists(userOleg.getId(), loader);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void checkExists_shouldThrowExceptionEveryTimeIfUserNotFound() {
+        assertThrows(NotFoundException.class, () -> userCache.checkExists(99L, loader));
+        assertThrows(NotFoundException.class, () -> userCache.checkExists(99L, loader));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evict_shouldLoadUserAgain() {
+        userCache.checkExists(userOleg.getId(), loader);
+        userCache.evict(userOleg.getId());
+        userCache.checkExists(userOleg.getId(), loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictAll_shouldLoadUserAgain() {
+        userCache.checkExists(userOleg.getId(), loader);
+        userCache.evictAll();
+        userCache.checkExists(userOleg.getId(), loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void bindTo_shouldPublishHitsAndMisses() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        userCache.bindTo(registry);
+
+        userCache.checkExists(userOleg.getId(), loader);
+        userCache.checkExists(userOleg.getId(), loader);
+
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "users", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "users", "result", "miss")
+                .functionCounter().count());
+    }
+}
@@ -6,7 +6,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.index.BookingIndexService;
+import ru.practicum.shareit.booking.index.BookingPointerService;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.comment.CommentSummaryCache;
+import ru.practicum.shareit.request.service.ItemRequestFeed;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -25,6 +29,16 @@ class UserServiceImplTest {
     private final UserDto userDtoOleg = new UserDto(userOleg.getId(), userOleg.getName(), userOleg.getEmail());
     @Mock
     private UserRepository mockUserRepository;
+    @Mock
+    private UserCache mockUserCache;
+    @Mock
+    private CommentSummaryCache mockCommentSummaryCache;
+    @Mock
+    private ItemRequestFeed mockItemRequestFeed;
+    @Mock
+    private BookingIndexService mockBookingIndexService;
+    @Mock
+    private BookingPointerService mockBookingPointerService;
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -80,6 +94,23 @@ class UserServiceImplTest {
         UserDto actualIrina = userService.update(userIrina.getId(), userIrinaUpdate);
 
         assertEquals(userIrinaDto, actualIrina);
+        Mockito
+                .verify(mockCommentSummaryCache, Mockito.never()).evictAll();
+    }
+
+    @Test
+    void update_shouldEvictCommentSummariesIfNameChanged() {
+        User userIrina = new User(2L, "Irina", "irina@yandex.ru");
+        UserDto userIrinaUpdate = new UserDto(userIrina.getId(), "Irene", null);
+        Mockito
+                .when(mockUserRepository.findById(userIrina.getId()))
+                .thenReturn(Optional.of(userIrina));
+        userService.update(userIrina.getId(), userIrinaUpdate);
+
+        Mockito
+                .verify(mockCommentSummaryCache, Mockito.times(1)).evictAll();
+        Mockito
+                .verify(mockItemRequestFeed, Mockito.times(1)).evictAll();
     }
 
     @Test
@@ -113,6 +144,8 @@ class UserServiceImplTest {
         userService.deleteById(userOleg.getId());
         Mockito
                 .verify(mockUserRepository, Mockito.times(1)).deleteById(userOleg.getId());
+        Mockito
+                .verify(mockUserCache, Mockito.times(1)).evict(userOleg.getId());
     }
 
     @Test
@@ -120,5 +153,13 @@ class UserServiceImplTest {
         userService.deleteAll();
         Mockito
                 .verify(mockUserRepository, Mockito.times(1)).deleteAll();
+        Mockito
+                .verify(mockUserCache, Mockito.times(1)).evictAll();
+        Mockito
+                .verify(mockCommentSummaryCache, Mockito.times(1)).evictAll();
+        Mockito
+                .verify(mockBookingIndexService, Mockito.times(1)).clear();
+        Mockito
+                .verify(mockBookingPointerService, Mockito.times(1)).clear();
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ValidateException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void decode_shouldRestoreDateAndId() {
+        LocalDateTime date = LocalDateTime.of(2023, 1, 20, 12, 0, 30);
+
+        PageCursor cursor = PageCursor.decode(PageCursor.encode(date, 7L));
+
+        assertEquals(date, cursor.getDateOrThrow());
+        assertEquals(7L, cursor.getId());
+    }
+
+    @Test
+    void decode_shouldRestoreIdOnly() {
+        PageCursor cursor = PageCursor.decode(PageCursor.encode(42L));
+
+        assertNull(cursor.getDate());
+        assertEquals(42L, cursor.getId());
+        assertThrows(ValidateException.class, cursor::getDateOrThrow);
+    }
+
+    @Test
+    void decode_shouldThrowExceptionIfTokenIsBroken() {
+        assertThrows(ValidateException.class, () -> PageCursor.decode("not a cursor"));
+        assertThrows(ValidateException.class, () -> PageCursor.decode(PageCursor.encode(1L).substring(1)));
+    }
+
+    @Test
+    void toResponse_shouldSetHeaderOnlyForFullPage() {
+        ResponseEntity<List<Long>> full = PageCursor.toResponse(List.of(1L, 2L), 2, PageCursor::encode);
+        ResponseEntity<List<Long>> last = PageCursor.toResponse(List.of(3L), 2, PageCursor::encode);
+
+        assertEquals(2L, PageCursor.decode(full.getHeaders().getFirst(PageCursor.HEADER)).getId());
+        assertFalse(last.getHeaders().containsKey(PageCursor.HEADER));
+    }
+}
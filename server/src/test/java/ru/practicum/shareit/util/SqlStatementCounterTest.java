@@ -0,0 +1,71 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareitStatements",
+        "shareit.sql.statement-budget=2",
+        "shareit.sql.fail-over-budget=true"
+})
+@Sql(statements = {
+        "DELETE FROM items",
+        "DELETE FROM users",
+        "INSERT INTO users (id, name, email) VALUES (1, 'Oleg', 'oleg@yandex.ru')",
+        "INSERT INTO items (id, name, description, is_available, owner_id) VALUES (1, 'Dryer', 'For curly hair', true, 1)"
+})
+class SqlStatementCounterTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void getUser_shouldRecordStatementsByUri() throws Exception {
+        mvc.perform(get("/users/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(request().attribute(SqlStatementCounter.STATEMENTS_ATTRIBUTE, 2));
+
+        DistributionSummary statements = meterRegistry.get("shareit.http.sql.statements")
+                .tag("method", "GET")
+                .tag("uri", "/users/{id}")
+                .summary();
+        assertEquals(1, statements.count());
+        assertEquals(2.0, statements.totalAmount());
+    }
+
+    @Test
+    void stream_shouldRecordStatementsWhenAsyncHandlingStarts() throws Exception {
+        mvc.perform(get("/requests/stream")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andExpect(request().attribute(SqlStatementCounter.STATEMENTS_ATTRIBUTE, notNullValue()));
+
+        DistributionSummary statements = meterRegistry.get("shareit.http.sql.statements")
+                .tag("method", "GET")
+                .tag("uri", "/requests/stream")
+                .summary();
+        assertEquals(1, statements.count());
+    }
+
+    @Test
+    void getAll_shouldFailIfStatementBudgetExceeded() throws Exception {
+        mvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isInternalServerError());
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+    private final TimingWheel<String> wheel = new TimingWheel<>(100, 8, 1_000);
+
+    @Test
+    void advance_shouldExpireTasksWhoseDeadlinePassed() {
+        wheel.schedule("dryer", 1_250);
+        wheel.schedule("lamp", 1_600);
+
+        assertEquals(List.of(), wheel.advance(1_200));
+        assertEquals(List.of("dryer"), wheel.advance(1_300));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("lamp"), wheel.advance(5_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_shouldKeepTasksOfLaterTurnsInSlot() {
+        wheel.schedule("dryer", 1_200);
+        wheel.schedule("lamp", 2_000);
+
+        assertEquals(List.of("dryer"), wheel.advance(1_200));
+        assertEquals(List.of(), wheel.advance(1_900));
+        assertEquals(List.of("lamp"), wheel.advance(2_000));
+    }
+
+    @Test
+    void advance_shouldCascadeTasksFromUpperLevels() {
+        wheel.schedule("dryer", 1_000 + 100 * 70);
+        wheel.schedule("lamp", 1_000 + 100 * 600);
+
+        assertEquals(List.of(), wheel.advance(1_000 + 100 * 69));
+        assertEquals(List.of("dryer"), wheel.advance(1_000 + 100 * 70));
+        assertEquals(List.of(), wheel.advance(1_000 + 100 * 599));
+        assertEquals(List.of("lamp"), wheel.advance(1_000 + 100 * 600));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_shouldExpirePastDeadlineOnNextTick() {
+        wheel.advance(1_500);
+        wheel.schedule("dryer", 900);
+
+        assertEquals(List.of(), wheel.advance(1_550));
+        assertEquals(List.of("dryer"), wheel.advance(1_600));
+    }
+
+    @Test
+    void constructor_shouldRejectNonPositiveTickAndSingleSlot() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(0, 8, 1_000));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(100, 1, 1_000));
+    }
+}
@@ -10,5 +10,5 @@ VALUES (4, 'I want to dry my hair', 2, '2023-01-01 12:00:00');
 INSERT INTO items (id, name, description, is_available, owner_id, request_id)
 VALUES (3, 'Dryer', 'For curly hair', true, 1, 4);
 
-INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status)
-VALUES (7, '2013-01-01 12:00:00', '2013-01-01 12:00:00', 3, 1, 'WAITING');
\ No newline at end of file
+INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, phase)
+VALUES (7, '2013-01-01 12:00:00', '2013-01-01 12:00:00', 3, 1, 'WAITING', 'FINISHED');
\ No newline at end of file